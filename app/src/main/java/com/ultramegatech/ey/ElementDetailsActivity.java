@@ -35,6 +35,7 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 
 import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.ElementSearchIndex;
 import com.ultramegatech.ey.util.PreferenceUtils;
 
 /**
@@ -56,7 +57,7 @@ public class ElementDetailsActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        final boolean darkTheme = PreferenceUtils.getSettings().darkTheme;
         setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
 
         super.onCreate(savedInstanceState);
@@ -79,7 +80,12 @@ public class ElementDetailsActivity extends AppCompatActivity {
                             Log.w(TAG, "Invalid atomic number");
                         }
                     } else {
-                        fragment = ElementDetailsFragment.getInstance(path);
+                        final int number = ElementSearchIndex.getInstance(this).findExact(path);
+                        if(number > 0) {
+                            fragment = ElementDetailsFragment.getInstance(number);
+                        } else {
+                            Log.w(TAG, "Unknown element");
+                        }
                     }
                 }
             }
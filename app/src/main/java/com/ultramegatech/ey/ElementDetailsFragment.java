@@ -23,14 +23,11 @@
 package com.ultramegatech.ey;
 
 import android.app.Activity;
-import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.text.Html;
-import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -43,7 +40,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
 import androidx.fragment.app.FragmentManager;
-import androidx.preference.PreferenceManager;
 
 import com.ultramegatech.ey.provider.Element;
 import com.ultramegatech.ey.provider.Elements;
@@ -51,6 +47,7 @@ import com.ultramegatech.ey.provider.Isotope;
 import com.ultramegatech.ey.provider.Isotopes;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.util.Settings;
 import com.ultramegatech.ey.util.UnitUtils;
 
 import java.text.DecimalFormat;
@@ -64,7 +61,7 @@ import java.util.Locale;
  */
 @SuppressWarnings("WeakerAccess")
 public class ElementDetailsFragment extends DialogFragment
-        implements SharedPreferences.OnSharedPreferenceChangeListener {
+        implements PreferenceUtils.OnSettingsChangedListener {
     /**
      * The tag to identify the Fragment
      */
@@ -181,11 +178,7 @@ public class ElementDetailsFragment extends DialogFragment
         super.onCreate(savedInstanceState);
         setStyle(STYLE_NO_TITLE, 0);
 
-        final Context context = getContext();
-        if (context != null) {
-            PreferenceManager.getDefaultSharedPreferences(context)
-                    .registerOnSharedPreferenceChangeListener(this);
-        }
+        PreferenceUtils.registerOnSettingsChangedListener(this);
 
         final Bundle args = getArguments();
         if(args != null) {
@@ -246,11 +239,7 @@ public class ElementDetailsFragment extends DialogFragment
     @Override
     public void onDestroy() {
         super.onDestroy();
-        final Context context = getContext();
-        if (context != null) {
-            final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-            prefs.unregisterOnSharedPreferenceChangeListener(this);
-        }
+        PreferenceUtils.unregisterOnSettingsChangedListener(this);
     }
 
     /**
@@ -282,8 +271,8 @@ public class ElementDetailsFragment extends DialogFragment
         getElectronConfiguration();
         getElectrons();
         mTxtDensity.setText(getDensity());
-        mTxtMelt.setText(getTemperature(mElement.melt));
-        mTxtBoil.setText(getTemperature(mElement.boil));
+        mTxtMelt.setText(getTemperature(mElement.getMelt()));
+        mTxtBoil.setText(getTemperature(mElement.getBoil()));
         mTxtHeat.setText(getHeat());
         mTxtNegativity.setText(getNegativity());
         mTxtAbundance.setText(getAbundance());
@@ -321,11 +310,11 @@ public class ElementDetailsFragment extends DialogFragment
      * returned surrounded by brackets.
      */
     private void getWeight() {
-        if(mElement.unstable) {
-            mTxtWeight.setText(String.format(Locale.getDefault(), "[%.0f]", mElement.weight));
-            mTxtWeight.setContentDescription(String.valueOf((int)mElement.weight));
+        if(mElement.isUnstable()) {
+            mTxtWeight.setText(String.format(Locale.getDefault(), "[%.0f]", mElement.getWeight()));
+            mTxtWeight.setContentDescription(String.valueOf((int)mElement.getWeight()));
         } else {
-            mTxtWeight.setText(DECIMAL_FORMAT.format(mElement.weight));
+            mTxtWeight.setText(DECIMAL_FORMAT.format(mElement.getWeight()));
         }
         mTxtElementWeight.setText(mTxtWeight.getText());
     }
@@ -335,7 +324,7 @@ public class ElementDetailsFragment extends DialogFragment
      */
     private void getCategory() {
         final CharSequence[] cats = getResources().getTextArray(R.array.ptCategories);
-        mTxtCategory.setText(cats[mElement.category]);
+        mTxtCategory.setText(cats[mElement.getCategory()]);
     }
 
     /**
@@ -345,21 +334,22 @@ public class ElementDetailsFragment extends DialogFragment
         final StringBuilder builder = new StringBuilder();
         final StringBuilder descBuilder = new StringBuilder();
 
-        if(mElement.group == 0) {
+        final int group = mElement.getGroup();
+        if(group == 0) {
             builder.append("∅, ");
         } else {
-            builder.append(mElement.group).append(", ");
-            descBuilder.append(getString(R.string.descGroup)).append(' ').append(mElement.group)
+            builder.append(group).append(", ");
+            descBuilder.append(getString(R.string.descGroup)).append(' ').append(group)
                     .append(", ");
         }
 
-        builder.append(mElement.period).append(", ");
-        descBuilder.append(getString(R.string.descPeriod)).append(' ').append(mElement.period)
-                .append(", ");
+        builder.append(mElement.getPeriod()).append(", ");
+        descBuilder.append(getString(R.string.descPeriod)).append(' ')
+                .append(mElement.getPeriod()).append(", ");
 
-        builder.append(mElement.block);
+        builder.append(mElement.getBlock());
         descBuilder.append(getString(R.string.descBlock)).append(' ')
-                .append(String.valueOf(mElement.block).toUpperCase());
+                .append(Character.toUpperCase(mElement.getBlock()));
 
         mTxtGPB.setText(builder.toString());
         mTxtGPB.setContentDescription(descBuilder.toString());
@@ -372,16 +362,17 @@ public class ElementDetailsFragment extends DialogFragment
         final StringBuilder builder = new StringBuilder();
         final StringBuilder descBuilder = new StringBuilder();
 
-        if(mElement.configuration.baseElement != null) {
-            builder.append('[').append(mElement.configuration.baseElement).append("] ");
-            final Element baseElement = Elements.getElement(mElement.configuration.baseElement);
+        final Element.Configuration configuration = mElement.getConfiguration();
+        if(configuration.baseElement != null) {
+            builder.append('[').append(configuration.baseElement).append("] ");
+            final Element baseElement = Elements.getElement(configuration.baseElement);
             if(baseElement != null) {
                 descBuilder.append(getString(ElementUtils.getElementName(baseElement.number)));
                 descBuilder.append(", ");
             }
         }
 
-        for(Element.Orbital orbital : mElement.configuration.orbitals) {
+        for(Element.Orbital orbital : configuration.orbitals) {
             builder.append(orbital.shell).append(orbital.orbital);
             builder.append("<sup><small>").append(orbital.electrons).append("</small></sup> ");
             descBuilder.append(orbital.shell).append(' ');
@@ -404,8 +395,18 @@ public class ElementDetailsFragment extends DialogFragment
      * Get the electrons per shell.
      */
     private void getElectrons() {
-        mTxtElectrons.setText(TextUtils.join(", ", mElement.electrons));
-        mTxtElementElectrons.setText(TextUtils.join("\n", mElement.electrons));
+        final StringBuilder builder = new StringBuilder();
+        final StringBuilder blockBuilder = new StringBuilder();
+        for(int i = 0; i < mElement.getShellCount(); i++) {
+            if(i > 0) {
+                builder.append(", ");
+                blockBuilder.append('\n');
+            }
+            builder.append(mElement.getElectrons(i));
+            blockBuilder.append(mElement.getElectrons(i));
+        }
+        mTxtElectrons.setText(builder.toString());
+        mTxtElementElectrons.setText(blockBuilder.toString());
     }
 
     /**
@@ -415,8 +416,8 @@ public class ElementDetailsFragment extends DialogFragment
      */
     @NonNull
     private String getDensity() {
-        if(mElement.density != null) {
-            return DECIMAL_FORMAT.format(mElement.density) + " g/cm³";
+        if(!Double.isNaN(mElement.getDensity())) {
+            return DECIMAL_FORMAT.format(mElement.getDensity()) + " g/cm³";
         }
         return mStringUnknown;
     }
@@ -424,16 +425,16 @@ public class ElementDetailsFragment extends DialogFragment
     /**
      * Get a value as a temperature string.
      *
-     * @param kelvin The temperature in Kelvin
+     * @param kelvin The temperature in Kelvin, or NaN if unknown
      * @return The converted temperature string
      */
     @NonNull
-    private String getTemperature(@Nullable Double kelvin) {
-        if(kelvin != null) {
-            switch(PreferenceUtils.getPrefTempUnit()) {
-                case PreferenceUtils.TEMP_C:
+    private String getTemperature(double kelvin) {
+        if(!Double.isNaN(kelvin)) {
+            switch(PreferenceUtils.getSettings().tempUnit) {
+                case Settings.TEMP_C:
                     return String.format(Locale.getDefault(), "%.2f ℃", UnitUtils.KtoC(kelvin));
-                case PreferenceUtils.TEMP_F:
+                case Settings.TEMP_F:
                     return String.format(Locale.getDefault(), "%.2f ℉", UnitUtils.KtoF(kelvin));
                 default:
                     return String.format(Locale.getDefault(), "%.2f K", kelvin);
@@ -450,8 +451,8 @@ public class ElementDetailsFragment extends DialogFragment
      */
     @NonNull
     private String getHeat() {
-        if(mElement.heat != null) {
-            return DECIMAL_FORMAT.format(mElement.heat) + " J/g·K";
+        if(!Double.isNaN(mElement.getHeat())) {
+            return DECIMAL_FORMAT.format(mElement.getHeat()) + " J/g·K";
         }
         return mStringUnknown;
     }
@@ -463,8 +464,8 @@ public class ElementDetailsFragment extends DialogFragment
      */
     @NonNull
     private String getNegativity() {
-        if(mElement.negativity != null) {
-            return DECIMAL_FORMAT.format(mElement.negativity);
+        if(!Double.isNaN(mElement.getNegativity())) {
+            return DECIMAL_FORMAT.format(mElement.getNegativity());
         }
         return mStringUnknown;
     }
@@ -476,11 +477,12 @@ public class ElementDetailsFragment extends DialogFragment
      */
     @NonNull
     private String getAbundance() {
-        if(mElement.abundance != null) {
-            if(mElement.abundance < 0.001) {
+        final double abundance = mElement.getAbundance();
+        if(!Double.isNaN(abundance)) {
+            if(abundance < 0.001) {
                 return "<0.001 mg/kg";
             }
-            return DECIMAL_FORMAT.format(mElement.abundance) + " mg/kg";
+            return DECIMAL_FORMAT.format(abundance) + " mg/kg";
         }
         return mStringUnknown;
     }
@@ -545,13 +547,12 @@ public class ElementDetailsFragment extends DialogFragment
     }
 
     @Override
-    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        if(PreferenceUtils.KEY_TEMP_UNITS.equals(key)) {
-            if(mElement != null) {
-                mTxtMelt.setText(getTemperature(mElement.melt));
-                mTxtBoil.setText(getTemperature(mElement.boil));
-            }
-        } else if(PreferenceUtils.KEY_ELEMENT_COLORS.equals(key)) {
+    public void onSettingsChanged(@NonNull Settings settings, int changes) {
+        if((changes & Settings.CHANGED_TEMP_UNIT) != 0 && mElement != null) {
+            mTxtMelt.setText(getTemperature(mElement.getMelt()));
+            mTxtBoil.setText(getTemperature(mElement.getBoil()));
+        }
+        if((changes & Settings.CHANGED_ELEMENT_COLORS) != 0) {
             setBlockBackground();
         }
     }
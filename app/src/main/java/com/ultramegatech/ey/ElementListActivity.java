@@ -48,7 +48,7 @@ public class ElementListActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
-        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        final boolean darkTheme = PreferenceUtils.getSettings().darkTheme;
         setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
 
         super.onCreate(savedInstanceState);
@@ -26,23 +26,32 @@ import android.app.Activity;
 import android.app.AlertDialog;
 import android.app.Dialog;
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.database.DataSetObserver;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.view.LayoutInflater;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.Button;
+import android.widget.CompoundButton;
 import android.widget.EditText;
-import android.widget.ListView;
+import android.widget.TextView;
+import android.widget.ToggleButton;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.fragment.app.DialogFragment;
+import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
-import androidx.fragment.app.ListFragment;
-import androidx.preference.PreferenceManager;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
+import com.ultramegatech.ey.provider.ElementFacets;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.util.Settings;
 import com.ultramegatech.ey.widget.ElementListAdapter;
 
 /**
@@ -51,8 +60,9 @@ import com.ultramegatech.ey.widget.ElementListAdapter;
  *
  * @author Steve Guidetti
  */
-public class ElementListFragment extends ListFragment
-        implements SharedPreferences.OnSharedPreferenceChangeListener {
+public class ElementListFragment extends Fragment
+        implements PreferenceUtils.OnSettingsChangedListener,
+        ElementListAdapter.OnItemClickListener, ElementListAdapter.OnFilterResultsListener {
     /**
      * Keys for saving instance state
      */
@@ -60,6 +70,7 @@ public class ElementListFragment extends ListFragment
     private static final String KEY_SORT_REVERSE = "key_sort_reverse";
     private static final String KEY_FILTER = "key_filter";
     private static final String KEY_ACTIVATED_ITEM = "key_activated_item";
+    private static final String KEY_FACETS = "key_facets";
 
     /**
      * The Adapter backing the list
@@ -86,6 +97,45 @@ public class ElementListFragment extends ListFragment
      */
     private long mActivatedItem = -1;
 
+    /**
+     * Whether list items are activated when clicked
+     */
+    private boolean mActivateOnItemClick = false;
+
+    /**
+     * The facets used to filter the list
+     */
+    private ElementFacets mFacets;
+
+    /**
+     * The toggle buttons for the values of each facet, indexed by the ElementFacets.FACET_
+     * constants and then by value
+     */
+    private final ToggleButton[][] mFacetButtons =
+            new ToggleButton[ElementFacets.NUM_FACETS][];
+
+    /**
+     * The labels for the values of each facet
+     */
+    private final String[][] mFacetLabels = new String[ElementFacets.NUM_FACETS][];
+
+    /**
+     * The number of elements for each value of each facet
+     */
+    private final int[][] mFacetCounts = new int[ElementFacets.NUM_FACETS][];
+
+    /**
+     * The set of elements matching the filter text
+     */
+    private final ElementSet mTextMatches = new ElementSet();
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        return inflater.inflate(R.layout.fragment_element_list, container, false);
+    }
+
     @Override
     public void onActivityCreated(Bundle savedInstanceState) {
         super.onActivityCreated(savedInstanceState);
@@ -95,8 +145,7 @@ public class ElementListFragment extends ListFragment
             return;
         }
 
-        final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(getContext());
-        prefs.registerOnSharedPreferenceChangeListener(this);
+        PreferenceUtils.registerOnSettingsChangedListener(this);
 
         if(savedInstanceState != null) {
             mSort = savedInstanceState.getInt(KEY_SORT, mSort);
@@ -105,19 +154,40 @@ public class ElementListFragment extends ListFragment
             mActivatedItem = savedInstanceState.getLong(KEY_ACTIVATED_ITEM, mActivatedItem);
         }
 
-        mAdapter = new ElementListAdapter(context);
-        mAdapter.registerDataSetObserver(new DataSetObserver() {
-            @Override
-            public void onChanged() {
-                super.onChanged();
-                setActivatedPosition(mAdapter.getItemPosition(mActivatedItem));
+        mFacets = new ElementFacets();
+        final int[] facets = savedInstanceState != null
+                ? savedInstanceState.getIntArray(KEY_FACETS) : null;
+        if(facets != null && facets.length == ElementFacets.NUM_FACETS) {
+            for(int i = 0; i < facets.length; i++) {
+                mFacets.setSelection(i, facets[i]);
             }
-        });
-        mAdapter.getFilter().filter(mFilter);
+        }
+        mTextMatches.addRange(Elements.getTable().size());
+
+        mAdapter = new ElementListAdapter(context);
+        mAdapter.setOnItemClickListener(this);
+        mAdapter.setOnFilterResultsListener(this);
+        mAdapter.setActivatedItem(mActivateOnItemClick ? mActivatedItem : -1);
         mAdapter.setSort(mSort, mSortReverse);
-        setListAdapter(mAdapter);
+        if(mFacets.hasSelection()) {
+            final ElementSet matches = new ElementSet();
+            mFacets.getMatches(matches);
+            mAdapter.setRestriction(matches);
+        }
+        mAdapter.filterNow(mFilter);
+
+        final View view = getView();
+        if(view != null) {
+            final RecyclerView list = view.findViewById(R.id.list);
+            list.setLayoutManager(new LinearLayoutManager(context));
+            list.addItemDecoration(
+                    new DividerItemDecoration(context, DividerItemDecoration.VERTICAL));
+            list.setHasFixedSize(true);
+            list.setAdapter(mAdapter);
+        }
 
         setupFilter();
+        setupFacets();
         setupSort();
     }
 
@@ -128,27 +198,30 @@ public class ElementListFragment extends ListFragment
         outState.putBoolean(KEY_SORT_REVERSE, mSortReverse);
         outState.putString(KEY_FILTER, mFilter);
         outState.putLong(KEY_ACTIVATED_ITEM, mActivatedItem);
+
+        final int[] facets = new int[ElementFacets.NUM_FACETS];
+        for(int i = 0; i < facets.length; i++) {
+            facets[i] = mFacets.getSelection(i);
+        }
+        outState.putIntArray(KEY_FACETS, facets);
     }
 
     @Override
     public void onDestroy() {
         super.onDestroy();
-        final Context context = getContext();
-        if (context != null) {
-            final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-            prefs.unregisterOnSharedPreferenceChangeListener(this);
-        }
+        PreferenceUtils.unregisterOnSettingsChangedListener(this);
     }
 
     @Override
-    public void onListItemClick(@NonNull ListView l, @NonNull View v, int position, long id) {
-        super.onListItemClick(l, v, position, id);
-
-        mActivatedItem = id;
+    public void onItemClick(int number) {
+        mActivatedItem = number;
+        if(mActivateOnItemClick) {
+            mAdapter.setActivatedItem(number);
+        }
 
         final ElementListActivity activity = (ElementListActivity)getActivity();
         if(activity != null) {
-            activity.onItemSelected((int)id);
+            activity.onItemSelected(number);
         }
     }
 
@@ -171,11 +244,150 @@ public class ElementListFragment extends ListFragment
 
             public void afterTextChanged(Editable s) {
                 mFilter = s.toString();
-                mAdapter.getFilter().filter(mFilter);
+                mAdapter.filter(mFilter);
             }
         });
     }
 
+    /**
+     * Setup the toggle buttons for the facets and the button to show and hide them.
+     */
+    private void setupFacets() {
+        final Activity activity = getActivity();
+        if(activity == null) {
+            return;
+        }
+
+        final ViewGroup panel = activity.findViewById(R.id.facetPanel);
+        final ToggleButton facetsButton = activity.findViewById(R.id.facets);
+        facetsButton.setOnCheckedChangeListener((buttonView, isChecked) ->
+                panel.setVisibility(isChecked ? View.VISIBLE : View.GONE));
+        panel.setVisibility(facetsButton.isChecked() ? View.VISIBLE : View.GONE);
+
+        final String[] blocks = getResources().getStringArray(R.array.ptBlocks);
+        final String[] categories = getResources().getStringArray(R.array.ptCategories);
+        final String[] periods = getNumberLabels(ElementFacets.FACET_PERIOD);
+        final String[] groups = getNumberLabels(ElementFacets.FACET_GROUP);
+
+        mFacetLabels[ElementFacets.FACET_BLOCK] = blocks;
+        mFacetLabels[ElementFacets.FACET_CATEGORY] = categories;
+        mFacetLabels[ElementFacets.FACET_PERIOD] = periods;
+        mFacetLabels[ElementFacets.FACET_GROUP] = groups;
+        mFacetLabels[ElementFacets.FACET_STABILITY] = new String[] {
+                getString(R.string.facetStable),
+                getString(R.string.facetUnstable)
+        };
+        mFacetLabels[ElementFacets.FACET_KNOWN] = new String[] {
+                getString(R.string.labelDensity),
+                getString(R.string.labelMelt),
+                getString(R.string.labelBoil)
+        };
+
+        final String[] facetNames = new String[] {
+                getString(R.string.descBlock),
+                getString(R.string.labelCategory),
+                getString(R.string.descPeriod),
+                getString(R.string.descGroup),
+                null,
+                getString(R.string.facetKnown)
+        };
+
+        final LayoutInflater inflater = LayoutInflater.from(activity);
+        panel.removeAllViews();
+        for(int facet = 0; facet < ElementFacets.NUM_FACETS; facet++) {
+            final View row = inflater.inflate(R.layout.element_list_facet_row, panel, false);
+            final ViewGroup values = row.findViewById(R.id.facetValues);
+            final TextView label = row.findViewById(R.id.facetLabel);
+            if(facetNames[facet] != null) {
+                label.setText(facetNames[facet]);
+            } else {
+                label.setVisibility(View.GONE);
+            }
+
+            final int count = ElementFacets.getValueCount(facet);
+            mFacetButtons[facet] = new ToggleButton[count];
+            mFacetCounts[facet] = new int[count];
+            for(int value = 0; value < count; value++) {
+                final ToggleButton button = (ToggleButton)inflater
+                        .inflate(R.layout.element_list_facet, values, false);
+                button.setChecked(mFacets.isSelected(facet, value));
+                button.setOnCheckedChangeListener(new FacetListener(facet, value));
+                mFacetCounts[facet][value] = -1;
+                mFacetButtons[facet][value] = button;
+                values.addView(button);
+            }
+            panel.addView(row);
+        }
+
+        updateFacetCounts();
+    }
+
+    /**
+     * Get the labels for a facet with values numbered from one.
+     *
+     * @param facet One of the ElementFacets.FACET_ constants
+     * @return The labels for the values of the facet
+     */
+    @NonNull
+    private static String[] getNumberLabels(int facet) {
+        final String[] labels = new String[ElementFacets.getValueCount(facet)];
+        for(int i = 0; i < labels.length; i++) {
+            labels[i] = String.valueOf(i + 1);
+        }
+        return labels;
+    }
+
+    /**
+     * Apply the selected facets to the list.
+     */
+    private void applyFacets() {
+        if(mFacets.hasSelection()) {
+            final ElementSet matches = new ElementSet();
+            mFacets.getMatches(matches);
+            mAdapter.setRestriction(matches);
+        } else {
+            mAdapter.setRestriction(null);
+        }
+        updateFacetCounts();
+    }
+
+    /**
+     * Update the counts shown on the facet buttons. Only buttons with a changed count are
+     * updated.
+     */
+    private void updateFacetCounts() {
+        final int[][] counts = new int[ElementFacets.NUM_FACETS][];
+        for(int facet = 0; facet < counts.length; facet++) {
+            if(mFacetButtons[facet] == null) {
+                return;
+            }
+            counts[facet] = new int[mFacetButtons[facet].length];
+        }
+        mFacets.getCounts(mTextMatches, counts);
+
+        for(int facet = 0; facet < counts.length; facet++) {
+            for(int value = 0; value < counts[facet].length; value++) {
+                if(counts[facet][value] == mFacetCounts[facet][value]) {
+                    continue;
+                }
+                mFacetCounts[facet][value] = counts[facet][value];
+
+                final String text = getString(R.string.facetCount, mFacetLabels[facet][value],
+                        counts[facet][value]);
+                final ToggleButton button = mFacetButtons[facet][value];
+                button.setTextOn(text);
+                button.setTextOff(text);
+                button.setText(text);
+            }
+        }
+    }
+
+    @Override
+    public void onFilterResults(@NonNull ElementSet matches) {
+        mTextMatches.set(matches);
+        updateFacetCounts();
+    }
+
     /**
      * Setup the listener for the sort button.
      */
@@ -220,28 +432,46 @@ public class ElementListFragment extends ListFragment
      */
     @SuppressWarnings("SameParameterValue")
     void setActivateOnItemClick(boolean activateOnItemClick) {
-        getListView().setChoiceMode(activateOnItemClick
-                ? ListView.CHOICE_MODE_SINGLE
-                : ListView.CHOICE_MODE_NONE);
+        mActivateOnItemClick = activateOnItemClick;
+        if(mAdapter != null) {
+            mAdapter.setActivatedItem(activateOnItemClick ? mActivatedItem : -1);
+        }
+    }
+
+    @Override
+    public void onSettingsChanged(@NonNull Settings settings, int changes) {
+        if((changes & Settings.CHANGED_ELEMENT_COLORS) != 0) {
+            mAdapter.refreshColors();
+        }
     }
 
     /**
-     * Set the selected list item.
-     *
-     * @param position The index of the item to activate
+     * Listener for a facet value toggle button.
      */
-    private void setActivatedPosition(int position) {
-        if(position != ListView.INVALID_POSITION) {
-            getListView().setItemChecked(position, true);
-        } else {
-            getListView().setItemChecked(getListView().getCheckedItemPosition(), false);
+    private class FacetListener implements CompoundButton.OnCheckedChangeListener {
+        /**
+         * The facet
+         */
+        private final int mFacet;
+
+        /**
+         * The value of the facet
+         */
+        private final int mValue;
+
+        /**
+         * @param facet The facet
+         * @param value The value of the facet
+         */
+        FacetListener(int facet, int value) {
+            mFacet = facet;
+            mValue = value;
         }
-    }
 
-    @Override
-    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        if(PreferenceUtils.KEY_ELEMENT_COLORS.equals(key)) {
-            mAdapter.notifyDataSetInvalidated();
+        @Override
+        public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
+            mFacets.setSelected(mFacet, mValue, isChecked);
+            applyFacets();
         }
     }
 
@@ -254,7 +484,7 @@ public class ElementListFragment extends ListFragment
         public Dialog onCreateDialog(Bundle savedInstanceState) {
             return new AlertDialog.Builder(getActivity())
                     .setTitle(R.string.titleSort)
-                    .setItems(R.array.sortFieldNames, (dialog, item) -> {
+                    .setItems(getSortFieldNames(), (dialog, item) -> {
                         final ElementListFragment fragment =
                                 (ElementListFragment)getTargetFragment();
                         if(fragment != null) {
@@ -266,5 +496,20 @@ public class ElementListFragment extends ListFragment
                     .create();
         }
 
+        /**
+         * Get the names of the sort fields in the order of the ElementListAdapter.SORT_
+         * constants. The numeric property names are shared with the block subtext values.
+         *
+         * @return The names of the sort fields
+         */
+        @NonNull
+        private String[] getSortFieldNames() {
+            final String[] fields = getResources().getStringArray(R.array.sortFieldNames);
+            final String[] properties = getResources().getStringArray(R.array.subtextValueNames);
+            final String[] names = new String[fields.length + properties.length];
+            System.arraycopy(fields, 0, names, 0, fields.length);
+            System.arraycopy(properties, 0, names, fields.length, properties.length);
+            return names;
+        }
     }
 }
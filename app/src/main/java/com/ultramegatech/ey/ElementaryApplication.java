@@ -24,6 +24,7 @@ package com.ultramegatech.ey;
 
 import android.app.Application;
 
+import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
 
@@ -37,6 +38,7 @@ public class ElementaryApplication extends Application {
     public void onCreate() {
         super.onCreate();
         PreferenceUtils.setup(this);
+        Elements.setup(this);
         ElementUtils.setup(this);
     }
 }
@@ -24,9 +24,9 @@ package com.ultramegatech.ey;
 
 import android.annotation.SuppressLint;
 import android.app.ActionBar;
+import android.app.AlertDialog;
+import android.app.Dialog;
 import android.content.Intent;
-import android.content.SharedPreferences;
-import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.content.pm.ActivityInfo;
 import android.os.Build;
 import android.os.Bundle;
@@ -35,6 +35,7 @@ import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewStub;
 import android.view.WindowManager;
 import android.widget.AdapterView;
 import android.widget.Spinner;
@@ -42,18 +43,24 @@ import android.widget.ZoomControls;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.preference.PreferenceManager;
+import androidx.appcompat.widget.SearchView;
+import androidx.fragment.app.DialogFragment;
 
 import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementFacets;
+import com.ultramegatech.ey.provider.ElementSet;
 import com.ultramegatech.ey.provider.Elements;
 import com.ultramegatech.ey.util.CommonMenuHandler;
+import com.ultramegatech.ey.util.ElementSearchIndex;
+import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
-import com.ultramegatech.ey.util.UnitUtils;
+import com.ultramegatech.ey.util.Settings;
+import com.ultramegatech.ey.util.SubtextUtils;
 import com.ultramegatech.ey.widget.BlockSubtextValueListAdapter;
+import com.ultramegatech.ey.widget.PeriodicTable;
 import com.ultramegatech.ey.widget.PeriodicTableBlock;
 import com.ultramegatech.ey.widget.PeriodicTableView;
 
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 
 /**
@@ -63,7 +70,7 @@ import java.util.ArrayList;
  * @author Steve Guidetti
  */
 public class PeriodicTableActivity extends AppCompatActivity
-        implements OnSharedPreferenceChangeListener {
+        implements PreferenceUtils.OnSettingsChangedListener {
     /**
      * Delay in milliseconds before entering or re-entering immersive full screen mode
      */
@@ -74,6 +81,20 @@ public class PeriodicTableActivity extends AppCompatActivity
      */
     private static final long ZOOM_BUTTON_DELAY = 5000;
 
+    /**
+     * Keys for saving instance state
+     */
+    private static final String KEY_QUERY = "key_query";
+    private static final String KEY_FACETS = "key_facets";
+
+    /**
+     * The facets offered in the highlight dialog
+     */
+    private static final int[] HIGHLIGHT_FACETS = {
+            ElementFacets.FACET_CATEGORY,
+            ElementFacets.FACET_BLOCK
+    };
+
     /**
      * Handler for posting delayed callbacks
      */
@@ -86,9 +107,9 @@ public class PeriodicTableActivity extends AppCompatActivity
     private Runnable mImmersiveModeCallback;
 
     /**
-     * The main View
+     * The main View, either a PeriodicTableView or a PeriodicTableSurfaceView
      */
-    private PeriodicTableView mPeriodicTableView;
+    private PeriodicTable mPeriodicTableView;
 
     /**
      * The controls for the Periodic Table
@@ -112,46 +133,64 @@ public class PeriodicTableActivity extends AppCompatActivity
     private Spinner mSpinnerBlockColors;
 
     /**
-     * Format for decimal values
+     * The index used to search the elements
      */
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat();
+    private ElementSearchIndex mSearchIndex;
 
-    static {
-        DECIMAL_FORMAT.setMaximumFractionDigits(4);
-    }
+    /**
+     * The facets used to highlight elements
+     */
+    private ElementFacets mFacets;
+
+    /**
+     * The current search query
+     */
+    private String mQuery;
 
     @SuppressLint("SourceLockedOrientationActivity")
     @Override
     public void onCreate(Bundle savedInstanceState) {
         setRequestedOrientation(ActivityInfo.SCREEN_ORIENTATION_SENSOR_LANDSCAPE);
-        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        final boolean darkTheme = PreferenceUtils.getSettings().darkTheme;
         setTheme(darkTheme ? R.style.DarkTheme : R.style.LightTheme);
 
         super.onCreate(savedInstanceState);
 
-        final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(this);
-        prefs.registerOnSharedPreferenceChangeListener(this);
+        PreferenceUtils.registerOnSettingsChangedListener(this);
 
         setupImmersiveMode();
         setContentView(R.layout.activity_periodic_table);
 
-        mPeriodicTableView = findViewById(R.id.ptview);
+        final ViewStub periodicTableStub = findViewById(R.id.ptviewStub);
+        if(getResources().getBoolean(R.bool.ptSurfaceView)) {
+            periodicTableStub.setLayoutResource(R.layout.ptable_surface_view);
+        }
+        mPeriodicTableView = (PeriodicTable)periodicTableStub.inflate();
         mPeriodicTableView.setPeriodicTableListener(new PeriodicTableView.PeriodicTableListener() {
             @Override
             public void onItemClick(@NonNull PeriodicTableBlock item) {
                 ElementDetailsFragment.showDialog(getSupportFragmentManager(), item.element.number);
             }
 
+            @Override
+            public void onLegendItemClick(int item) {
+                final int facet =
+                        PreferenceUtils.getSettings().elementColors == Settings.COLOR_BLOCK
+                                ? ElementFacets.FACET_BLOCK : ElementFacets.FACET_CATEGORY;
+                mFacets.setSelected(facet, item, !mFacets.isSelected(facet, item));
+                updateHighlight();
+            }
+
             @SuppressWarnings("deprecation")
             @Override
-            public void onZoomEnd(@NonNull PeriodicTableView periodicTableView) {
-                mZoomControls.setIsZoomInEnabled(periodicTableView.canZoomIn());
-                mZoomControls.setIsZoomOutEnabled(periodicTableView.canZoomOut());
+            public void onZoomEnd(@NonNull PeriodicTable periodicTable) {
+                mZoomControls.setIsZoomInEnabled(periodicTable.canZoomIn());
+                mZoomControls.setIsZoomOutEnabled(periodicTable.canZoomOut());
             }
         });
 
         mControlBar = findViewById(R.id.controls);
-        if(PreferenceUtils.getPrefShowControls()) {
+        if(PreferenceUtils.getSettings().showControls) {
             mControlBar.setVisibility(View.VISIBLE);
         }
 
@@ -159,7 +198,71 @@ public class PeriodicTableActivity extends AppCompatActivity
         setupSubtextValueSpinner();
         setupBlockColorSpinner();
 
+        mSearchIndex = ElementSearchIndex.getInstance(this);
+        mFacets = new ElementFacets();
+        if(savedInstanceState != null) {
+            mQuery = savedInstanceState.getString(KEY_QUERY);
+            final int[] facets = savedInstanceState.getIntArray(KEY_FACETS);
+            if(facets != null && facets.length == ElementFacets.NUM_FACETS) {
+                for(int i = 0; i < facets.length; i++) {
+                    mFacets.setSelection(i, facets[i]);
+                }
+            }
+        }
+
         loadElements();
+        updateHighlight();
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(KEY_QUERY, mQuery);
+
+        final int[] facets = new int[ElementFacets.NUM_FACETS];
+        for(int i = 0; i < facets.length; i++) {
+            facets[i] = mFacets.getSelection(i);
+        }
+        outState.putIntArray(KEY_FACETS, facets);
+    }
+
+    /**
+     * Highlight the elements matching the search query and the selected facets. All blocks are
+     * shown normally if there is no query and no selection.
+     */
+    private void updateHighlight() {
+        final boolean hasQuery = mQuery != null && !mQuery.isEmpty();
+        if(!hasQuery && !mFacets.hasSelection()) {
+            mPeriodicTableView.setHighlight(null);
+            return;
+        }
+
+        final ElementSet highlight = new ElementSet();
+        mFacets.getMatches(highlight);
+        if(hasQuery) {
+            final ElementSet matches = new ElementSet();
+            mSearchIndex.search(mQuery, matches);
+            highlight.and(matches);
+        }
+        mPeriodicTableView.setHighlight(highlight);
+    }
+
+    /**
+     * Select or deselect a value in the highlight dialog.
+     *
+     * @param item     The index of the item in the highlight dialog
+     * @param selected Whether the item is selected
+     */
+    private void setHighlightItem(int item, boolean selected) {
+        for(int facet : HIGHLIGHT_FACETS) {
+            final int count = ElementFacets.getValueCount(facet);
+            if(item < count) {
+                mFacets.setSelected(facet, item, selected);
+                break;
+            }
+            item -= count;
+        }
+        updateHighlight();
     }
 
     /**
@@ -205,8 +308,7 @@ public class PeriodicTableActivity extends AppCompatActivity
         mSpinnerSubtextValue = findViewById(R.id.subtextValue);
         final BlockSubtextValueListAdapter adapter = new BlockSubtextValueListAdapter(this);
         mSpinnerSubtextValue.setAdapter(adapter);
-        mSpinnerSubtextValue.setSelection(adapter
-                .getItemIndex(PreferenceUtils.getPrefSubtextValue()));
+        mSpinnerSubtextValue.setSelection(PreferenceUtils.getSettings().subtextValue);
         mSpinnerSubtextValue.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> adapterView, View view, int i, long l) {
@@ -228,13 +330,12 @@ public class PeriodicTableActivity extends AppCompatActivity
             return;
         }
 
-        final String pref = PreferenceUtils.getPrefElementColors();
-        mSpinnerBlockColors.setSelection(pref.equals(PreferenceUtils.COLOR_CAT) ? 0 : 1);
+        final String[] values = getResources().getStringArray(R.array.elementColors);
+        mSpinnerBlockColors.setSelection(PreferenceUtils.getSettings().elementColors);
         mSpinnerBlockColors.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
             @Override
             public void onItemSelected(AdapterView<?> adapterView, View view, int i, long l) {
-                PreferenceUtils.setPrefElementColors(i == 0 ? PreferenceUtils.COLOR_CAT
-                        : PreferenceUtils.COLOR_BLOCK);
+                PreferenceUtils.setPrefElementColors(values[i]);
             }
 
             @Override
@@ -246,8 +347,8 @@ public class PeriodicTableActivity extends AppCompatActivity
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(this);
-        prefs.unregisterOnSharedPreferenceChangeListener(this);
+        PreferenceUtils.unregisterOnSettingsChangedListener(this);
+        ((BlockSubtextValueListAdapter)mSpinnerSubtextValue.getAdapter()).destroy();
     }
 
     @Override
@@ -319,6 +420,31 @@ public class PeriodicTableActivity extends AppCompatActivity
         final MenuInflater inflater = getMenuInflater();
         inflater.inflate(R.menu.periodic_table, menu);
         inflater.inflate(R.menu.common, menu);
+
+        final MenuItem searchItem = menu.findItem(R.id.menu_search);
+        final SearchView searchView = (SearchView)searchItem.getActionView();
+        if(searchView != null) {
+            searchView.setQueryHint(getString(R.string.hintFilter));
+            if(mQuery != null && !mQuery.isEmpty()) {
+                searchItem.expandActionView();
+                searchView.setQuery(mQuery, false);
+            }
+            searchView.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+                @Override
+                public boolean onQueryTextSubmit(String query) {
+                    searchView.clearFocus();
+                    return true;
+                }
+
+                @Override
+                public boolean onQueryTextChange(String newText) {
+                    mQuery = newText;
+                    updateHighlight();
+                    return true;
+                }
+            });
+        }
+
         return super.onCreateOptionsMenu(menu);
     }
 
@@ -329,84 +455,26 @@ public class PeriodicTableActivity extends AppCompatActivity
             startActivity(new Intent(this, ElementListActivity.class));
             return true;
         }
+        if(id == R.id.menu_highlight) {
+            new HighlightDialog().show(getSupportFragmentManager(), null);
+            return true;
+        }
 
         return CommonMenuHandler.handleSelect(this, id) || super.onOptionsItemSelected(item);
     }
 
-    /**
-     * Get the block subtext for an element block.
-     *
-     * @param element The Element
-     * @return The subtext for the element
-     */
-    @NonNull
-    private String getSubtext(@NonNull Element element) {
-        switch(PreferenceUtils.getPrefSubtextValue()) {
-            case PreferenceUtils.SUBTEXT_WEIGHT:
-                if(element.unstable) {
-                    return "[" + (int)element.weight + "]";
-                } else {
-                    return DECIMAL_FORMAT.format(element.weight);
-                }
-            case PreferenceUtils.SUBTEXT_MELT:
-            case PreferenceUtils.SUBTEXT_BOIL:
-                Double value;
-                if(PreferenceUtils.SUBTEXT_MELT.equals(PreferenceUtils.getPrefSubtextValue())) {
-                    value = element.melt;
-                } else {
-                    value = element.boil;
-                }
-                if(value != null) {
-                    switch(PreferenceUtils.getPrefTempUnit()) {
-                        case PreferenceUtils.TEMP_C:
-                            value = UnitUtils.KtoC(value);
-                            break;
-                        case PreferenceUtils.TEMP_F:
-                            value = UnitUtils.KtoF(value);
-                            break;
-                    }
-                    return DECIMAL_FORMAT.format(value);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_DENSITY:
-                if(element.density != null) {
-                    if(element.density < 0.0001) {
-                        return "<0.0001";
-                    }
-                    return DECIMAL_FORMAT.format(element.density);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_ABUNDANCE:
-                if(element.abundance != null) {
-                    if(element.abundance < 0.001) {
-                        return "<0.001";
-                    }
-                    return DECIMAL_FORMAT.format(element.abundance);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_HEAT:
-                if(element.heat != null) {
-                    return String.valueOf(element.heat);
-                }
-                break;
-            case PreferenceUtils.SUBTEXT_NEGATIVITY:
-                if(element.negativity != null) {
-                    return String.valueOf(element.negativity);
-                }
-                break;
-        }
-        return "?";
-    }
-
     /**
      * Load the Elements into PeriodicTableBlock.
      */
     private void loadElements() {
+        final Settings settings = PreferenceUtils.getSettings();
+        final String[] subtexts =
+                SubtextUtils.getSubtexts(settings.subtextValue, settings.tempUnit);
         final ArrayList<PeriodicTableBlock> periodicTableBlocks = new ArrayList<>();
         PeriodicTableBlock block;
         for(Element element : Elements.getElements()) {
             block = new PeriodicTableBlock(element);
-            block.subtext = getSubtext(element);
+            block.subtext = subtexts[element.number - 1];
 
             periodicTableBlocks.add(block);
         }
@@ -415,26 +483,59 @@ public class PeriodicTableActivity extends AppCompatActivity
     }
 
     @Override
-    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        switch(key) {
-            case PreferenceUtils.KEY_SHOW_CONTROLS:
-                mControlBar.setVisibility(PreferenceUtils.getPrefShowControls() ? View.VISIBLE
-                        : View.GONE);
-                break;
-            case PreferenceUtils.KEY_ELEMENT_COLORS:
-                loadElements();
-                if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
-                    mSpinnerBlockColors.setSelection(1);
-                } else {
-                    mSpinnerBlockColors.setSelection(0);
-                }
-                mPeriodicTableView.invalidateLegend();
-                break;
-            case PreferenceUtils.KEY_SUBTEXT_VALUE:
-                loadElements();
-                mSpinnerSubtextValue.setSelection(
-                        ((BlockSubtextValueListAdapter)mSpinnerSubtextValue.getAdapter())
-                                .getItemIndex(PreferenceUtils.getPrefSubtextValue()));
+    public void onSettingsChanged(@NonNull Settings settings, int changes) {
+        if((changes & Settings.CHANGED_SHOW_CONTROLS) != 0) {
+            mControlBar.setVisibility(settings.showControls ? View.VISIBLE : View.GONE);
+        }
+        if((changes & Settings.CHANGED_ELEMENT_COLORS) != 0) {
+            mPeriodicTableView.setBlockColors(ElementUtils.getElementColors(settings));
+            if(mSpinnerBlockColors != null) {
+                mSpinnerBlockColors.setSelection(settings.elementColors);
+            }
+            mPeriodicTableView.invalidateLegend();
+        } else if((changes & Settings.CHANGED_TEMP_UNIT) != 0
+                && settings.elementColors == Settings.COLOR_HEAT) {
+            mPeriodicTableView.invalidateLegend();
+        }
+        if((changes & (Settings.CHANGED_SUBTEXT_VALUE | Settings.CHANGED_TEMP_UNIT)) != 0) {
+            mPeriodicTableView.setSubtexts(
+                    SubtextUtils.getSubtexts(settings.subtextValue, settings.tempUnit));
+        }
+        if((changes & Settings.CHANGED_SUBTEXT_VALUE) != 0) {
+            mSpinnerSubtextValue.setSelection(settings.subtextValue);
+        }
+    }
+
+    /**
+     * Dialog for choosing the categories and blocks to highlight.
+     */
+    public static class HighlightDialog extends DialogFragment {
+        @NonNull
+        @Override
+        public Dialog onCreateDialog(Bundle savedInstanceState) {
+            final PeriodicTableActivity activity = (PeriodicTableActivity)requireActivity();
+            final String[] categories = getResources().getStringArray(R.array.ptCategories);
+            final String[] blocks = getResources().getStringArray(R.array.ptBlocks);
+            final String blockLabel = getString(R.string.descBlock);
+
+            final String[] items = new String[categories.length + blocks.length];
+            final boolean[] checked = new boolean[items.length];
+            for(int i = 0; i < categories.length; i++) {
+                items[i] = categories[i];
+                checked[i] = activity.mFacets.isSelected(ElementFacets.FACET_CATEGORY, i);
+            }
+            for(int i = 0; i < blocks.length; i++) {
+                items[categories.length + i] = blockLabel + " " + blocks[i];
+                checked[categories.length + i] =
+                        activity.mFacets.isSelected(ElementFacets.FACET_BLOCK, i);
+            }
+
+            return new AlertDialog.Builder(activity)
+                    .setTitle(R.string.buttonFilters)
+                    .setMultiChoiceItems(items, checked, (dialog, which, isChecked) ->
+                            activity.setHighlightItem(which, isChecked))
+                    .setPositiveButton(android.R.string.ok, null)
+                    .create();
         }
     }
 }
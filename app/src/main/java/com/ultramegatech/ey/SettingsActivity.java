@@ -39,7 +39,7 @@ public class SettingsActivity extends AppCompatActivity
         implements SharedPreferences.OnSharedPreferenceChangeListener {
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
-        final boolean darkTheme = PreferenceUtils.getPrefDarkTheme();
+        final boolean darkTheme = PreferenceUtils.getSettings().darkTheme;
         setTheme(darkTheme ? R.style.DarkTheme_Preferences : R.style.LightTheme_Preferences);
 
         super.onCreate(savedInstanceState);
@@ -26,6 +26,7 @@ import android.content.Context;
 import android.os.Bundle;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.preference.ListPreference;
 import androidx.preference.PreferenceFragmentCompat;
 
@@ -44,20 +45,42 @@ public class SettingsFragment extends PreferenceFragmentCompat
      */
     private ListPreference mSubtextValuePreference;
 
+    /**
+     * The Preference for setting the heat map property
+     */
+    private ListPreference mHeatPropertyPreference;
+
+    /**
+     * The helper for keeping the lists of values up to date
+     */
+    @Nullable
+    private SubtextValuesHelper mSubtextValuesHelper;
+
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
         setPreferencesFromResource(R.xml.preferences, rootKey);
         mSubtextValuePreference = findPreference(PreferenceUtils.KEY_SUBTEXT_VALUE);
+        mHeatPropertyPreference = findPreference(PreferenceUtils.KEY_HEAT_PROPERTY);
 
         final Context context = getContext();
         if (context != null) {
-            final SubtextValuesHelper subtextValuesHelper = new SubtextValuesHelper(getContext(), this);
-            mSubtextValuePreference.setEntries(subtextValuesHelper.getList());
+            mSubtextValuesHelper = new SubtextValuesHelper(context, this);
+            mSubtextValuePreference.setEntries(mSubtextValuesHelper.getList());
+            mHeatPropertyPreference.setEntries(mSubtextValuesHelper.getList());
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        super.onDestroy();
+        if(mSubtextValuesHelper != null) {
+            mSubtextValuesHelper.destroy();
         }
     }
 
     @Override
     public void onSubtextValuesChanged(@NonNull SubtextValuesHelper helper) {
         mSubtextValuePreference.setEntries(helper.getList());
+        mHeatPropertyPreference.setEntries(helper.getList());
     }
 }
@@ -26,7 +26,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 /**
- * Container for a single element.
+ * Lightweight view of a single element within an ElementTable.
  *
  * @author Steve Guidetti
  */
@@ -43,122 +43,181 @@ public class Element {
     public final String symbol;
 
     /**
-     * The group
+     * The table containing the element data
      */
-    public final int group;
+    @NonNull
+    private final ElementTable mTable;
+
+    /**
+     * The index of the element within the table
+     */
+    private final int mIndex;
+
+    /**
+     * @param table The table containing the element data
+     * @param index The index of the element within the table
+     */
+    Element(@NonNull ElementTable table, int index) {
+        mTable = table;
+        mIndex = index;
+        this.number = index + 1;
+        this.symbol = table.getSymbol(index);
+    }
 
     /**
-     * The period
+     * Get the group.
+     *
+     * @return The group, or 0 for elements without a group
      */
-    public final int period;
+    public int getGroup() {
+        return mTable.getGroup(mIndex);
+    }
 
     /**
-     * The block
+     * Get the period.
+     *
+     * @return The period
      */
-    public final char block;
+    public int getPeriod() {
+        return mTable.getPeriod(mIndex);
+    }
 
     /**
-     * The atomic weight
+     * Get the block.
+     *
+     * @return The block letter
      */
-    public final double weight;
+    public char getBlock() {
+        return mTable.getBlock(mIndex);
+    }
 
     /**
-     * The density in g/cm³
+     * Get the ordinal value of the block.
+     *
+     * @return The block ordinal
      */
-    @Nullable
-    public final Double density;
+    public int getBlockIndex() {
+        return mTable.getBlockIndex(mIndex);
+    }
 
     /**
-     * The melting point in K
+     * Get the category.
+     *
+     * @return The category
      */
-    @Nullable
-    public final Double melt;
+    public int getCategory() {
+        return mTable.getCategory(mIndex);
+    }
 
     /**
-     * The boiling point in K
+     * Check whether the element is unstable.
+     *
+     * @return Whether the element is unstable
      */
-    @Nullable
-    public final Double boil;
+    public boolean isUnstable() {
+        return mTable.isUnstable(mIndex);
+    }
 
     /**
-     * The specific heat in J/g·K
+     * Get the value of a numeric property.
+     *
+     * @param property One of the ElementTable.PROP_ constants
+     * @return The value, or NaN if the value is unknown
      */
-    @Nullable
-    public final Double heat;
+    public double getValue(int property) {
+        return mTable.getValue(property, mIndex);
+    }
 
     /**
-     * The electronegativity on the Pauling scale
+     * Get the atomic weight.
+     *
+     * @return The atomic weight
      */
-    @Nullable
-    public final Double negativity;
+    public double getWeight() {
+        return mTable.getValue(ElementTable.PROP_WEIGHT, mIndex);
+    }
 
     /**
-     * The abundance in mg/kg
+     * Get the density.
+     *
+     * @return The density in g/cm³, or NaN if unknown
      */
-    @Nullable
-    public final Double abundance;
+    public double getDensity() {
+        return mTable.getValue(ElementTable.PROP_DENSITY, mIndex);
+    }
 
     /**
-     * The category
+     * Get the melting point.
+     *
+     * @return The melting point in K, or NaN if unknown
      */
-    public final int category;
+    public double getMelt() {
+        return mTable.getValue(ElementTable.PROP_MELT, mIndex);
+    }
 
     /**
-     * The electron configuration
+     * Get the boiling point.
+     *
+     * @return The boiling point in K, or NaN if unknown
      */
-    @NonNull
-    public final Configuration configuration;
+    public double getBoil() {
+        return mTable.getValue(ElementTable.PROP_BOIL, mIndex);
+    }
 
     /**
-     * The number of electrons per shell
+     * Get the specific heat.
+     *
+     * @return The specific heat in J/g·K, or NaN if unknown
+     */
+    public double getHeat() {
+        return mTable.getValue(ElementTable.PROP_HEAT, mIndex);
+    }
+
+    /**
+     * Get the electronegativity.
+     *
+     * @return The electronegativity on the Pauling scale, or NaN if unknown
+     */
+    public double getNegativity() {
+        return mTable.getValue(ElementTable.PROP_NEGATIVITY, mIndex);
+    }
+
+    /**
+     * Get the abundance.
+     *
+     * @return The abundance in mg/kg, or NaN if unknown
+     */
+    public double getAbundance() {
+        return mTable.getValue(ElementTable.PROP_ABUNDANCE, mIndex);
+    }
+
+    /**
+     * Get the electron configuration.
+     *
+     * @return The electron configuration
      */
     @NonNull
-    public final Integer[] electrons;
-
-    /**
-     * Whether the element is unstable
-     */
-    public final boolean unstable;
-
-    /**
-     * @param number        The element number
-     * @param symbol        The element symbol
-     * @param group         The group
-     * @param period        The period
-     * @param block         The block
-     * @param weight        The atomic weight
-     * @param density       The density in g/cm³
-     * @param melt          The melting point in K
-     * @param boil          The boiling point in K
-     * @param heat          The specific heat in J/g·K
-     * @param negativity    The electronegativity on the Pauling scale
-     * @param abundance     The abundance in mg/kg
-     * @param category      The category
-     * @param configuration The electron configuration
-     * @param electrons     The number of electrons per shell
-     * @param unstable      Whether the element is unstable
-     */
-    Element(int number, @NonNull String symbol, int group, int period, char block, double weight,
-            @Nullable Double density, @Nullable Double melt, @Nullable Double boil,
-            @Nullable Double heat, @Nullable Double negativity, @Nullable Double abundance,
-            int category, @NonNull Configuration configuration, @NonNull Integer[] electrons,
-            boolean unstable) {
-        this.number = number;
-        this.symbol = symbol;
-        this.group = group;
-        this.period = period;
-        this.block = block;
-        this.weight = weight;
-        this.density = density;
-        this.melt = melt;
-        this.boil = boil;
-        this.heat = heat;
-        this.negativity = negativity;
-        this.abundance = abundance;
-        this.category = category;
-        this.configuration = configuration;
-        this.electrons = electrons;
-        this.unstable = unstable;
+    public Configuration getConfiguration() {
+        return mTable.getConfiguration(mIndex);
+    }
+
+    /**
+     * Get the number of electron shells.
+     *
+     * @return The number of shells
+     */
+    public int getShellCount() {
+        return mTable.getShellCount(mIndex);
+    }
+
+    /**
+     * Get the number of electrons in a shell.
+     *
+     * @param shell The index of the shell, starting at 0
+     * @return The number of electrons in the shell
+     */
+    public int getElectrons(int shell) {
+        return mTable.getElectrons(mIndex, shell);
     }
 
     /**
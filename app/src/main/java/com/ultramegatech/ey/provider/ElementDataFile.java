@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reader for the binary element data asset compiled at build time from the files in app/data by
+ * the compileElementData Gradle task. The numeric columns are copied out of the buffer in bulk
+ * when the file is opened, while electron configurations and isotopes are only decoded when they
+ * are first requested.
+ *
+ * @author Steve Guidetti
+ */
+class ElementDataFile {
+    /**
+     * The format identifier and version
+     */
+    private static final int MAGIC = 0x454C454D;
+    private static final int VERSION = 1;
+
+    /**
+     * The size of the fixed header preceding the section offsets
+     */
+    private static final int HEADER_SIZE = 12;
+
+    /**
+     * The indices of the sections in the section offset table
+     */
+    private static final int SECTION_SYMBOLS = 0;
+    private static final int SECTION_ATTRIBUTES = 1;
+    private static final int SECTION_VALUES = 2;
+    private static final int SECTION_SHELLS = 3;
+    private static final int SECTION_CONFIGURATIONS = 4;
+    private static final int SECTION_ISOTOPE_INDEX = 5;
+    private static final int SECTION_ISOTOPES = 6;
+    private static final int SECTION_COUNT = 7;
+
+    /**
+     * The size of the fixed length symbol field in isotope records
+     */
+    private static final int ISOTOPE_SYMBOL_SIZE = 4;
+
+    /**
+     * The size of an isotope record
+     */
+    private static final int ISOTOPE_RECORD_SIZE = 2 + ISOTOPE_SYMBOL_SIZE + 8 + 8;
+
+    /**
+     * The buffer containing the file
+     */
+    @NonNull
+    private final ByteBuffer mBuffer;
+
+    /**
+     * The number of elements
+     */
+    private final int mCount;
+
+    /**
+     * The offset of each section
+     */
+    @NonNull
+    private final int[] mSections = new int[SECTION_COUNT];
+
+    /**
+     * The element symbols, which are needed to resolve configuration base elements
+     */
+    @Nullable
+    private String[] mSymbols;
+
+    /**
+     * @param buffer The buffer containing the file
+     */
+    ElementDataFile(@NonNull ByteBuffer buffer) {
+        mBuffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if(mBuffer.getInt(0) != MAGIC || mBuffer.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported element data format");
+        }
+        mCount = mBuffer.getShort(6);
+        if(mBuffer.getShort(10) < SECTION_COUNT) {
+            throw new IllegalArgumentException("Missing element data sections");
+        }
+        for(int i = 0; i < SECTION_COUNT; i++) {
+            mSections[i] = mBuffer.getInt(HEADER_SIZE + i * 4);
+        }
+    }
+
+    /**
+     * Decode the element table.
+     *
+     * @return The ElementTable
+     */
+    @NonNull
+    ElementTable readTable() {
+        final String[] symbols = new String[mCount];
+        int position = mSections[SECTION_SYMBOLS];
+        for(int i = 0; i < mCount; i++) {
+            final int length = mBuffer.get(position++);
+            final char[] chars = new char[length];
+            for(int j = 0; j < length; j++) {
+                chars[j] = (char)mBuffer.get(position++);
+            }
+            symbols[i] = new String(chars);
+        }
+        mSymbols = symbols;
+
+        final ByteBuffer buffer = mBuffer.duplicate();
+        buffer.position(mSections[SECTION_ATTRIBUTES]);
+        final byte[] groups = new byte[mCount];
+        final byte[] periods = new byte[mCount];
+        final byte[] blocks = new byte[mCount];
+        final byte[] categories = new byte[mCount];
+        final byte[] flags = new byte[mCount];
+        buffer.get(groups).get(periods).get(blocks).get(categories).get(flags);
+
+        final boolean[] unstable = new boolean[mCount];
+        for(int i = 0; i < mCount; i++) {
+            unstable[i] = (flags[i] & 1) != 0;
+        }
+
+        buffer.position(mSections[SECTION_VALUES]);
+        final double[][] values = new double[ElementTable.NUM_PROPS][mCount];
+        for(double[] column : values) {
+            buffer.asDoubleBuffer().get(column);
+            buffer.position(buffer.position() + mCount * 8);
+        }
+
+        buffer.position(mSections[SECTION_SHELLS]);
+        final int[] shellOffsets = new int[mCount + 1];
+        for(int i = 0; i <= mCount; i++) {
+            shellOffsets[i] = buffer.getShort();
+        }
+        final byte[] shells = new byte[shellOffsets[mCount]];
+        buffer.get(shells);
+
+        return new ElementTable(this, symbols, groups, periods, blocks, categories, unstable,
+                values, shellOffsets, shells);
+    }
+
+    /**
+     * Decode the electron configuration of an element.
+     *
+     * @param index The element index
+     * @return The electron configuration
+     */
+    @NonNull
+    Element.Configuration readConfiguration(int index) {
+        final int records = mSections[SECTION_CONFIGURATIONS] + (mCount + 1) * 4;
+        int position = records + mBuffer.getInt(mSections[SECTION_CONFIGURATIONS] + index * 4);
+
+        final int base = mBuffer.get(position++);
+        final Element.Orbital[] orbitals = new Element.Orbital[mBuffer.get(position++)];
+        for(int i = 0; i < orbitals.length; i++) {
+            orbitals[i] = new Element.Orbital(mBuffer.get(position), (char)mBuffer.get(position + 1),
+                    mBuffer.get(position + 2));
+            position += 3;
+        }
+
+        final String baseElement = base > 0 && mSymbols != null ? mSymbols[base - 1] : null;
+        return new Element.Configuration(baseElement, orbitals);
+    }
+
+    /**
+     * Decode the isotopes of an element.
+     *
+     * @param index The element index
+     * @return The list of isotopes for the element
+     */
+    @NonNull
+    Isotope[] readIsotopes(int index) {
+        final int indexSection = mSections[SECTION_ISOTOPE_INDEX];
+        final int first = mBuffer.getShort(indexSection + index * 2);
+        final int last = mBuffer.getShort(indexSection + (index + 1) * 2);
+
+        final Isotope[] isotopes = new Isotope[last - first];
+        int position = mSections[SECTION_ISOTOPES] + first * ISOTOPE_RECORD_SIZE;
+        for(int i = 0; i < isotopes.length; i++) {
+            final int number = mBuffer.getShort(position);
+            final char[] symbol = new char[mBuffer.get(position + 2)];
+            for(int j = 0; j < symbol.length; j++) {
+                symbol[j] = (char)mBuffer.get(position + 3 + j);
+            }
+            final double mass = mBuffer.getDouble(position + 2 + ISOTOPE_SYMBOL_SIZE);
+            final double ic = mBuffer.getDouble(position + 2 + ISOTOPE_SYMBOL_SIZE + 8);
+            isotopes[i] = new Isotope(number, new String(symbol), mass,
+                    Double.isNaN(ic) ? null : ic);
+            position += ISOTOPE_RECORD_SIZE;
+        }
+        return isotopes;
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Faceted selection over the elements. Each facet has a fixed list of values, and each value maps
+ * to a set of elements stored as two longs, precomputed with an ElementQuery. Selected values
+ * within a facet are combined with a logical OR, and the facets are combined with a logical AND.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementFacets {
+    /**
+     * Identifiers for the facets
+     */
+    public static final int FACET_BLOCK = 0;
+    public static final int FACET_CATEGORY = 1;
+    public static final int FACET_PERIOD = 2;
+    public static final int FACET_GROUP = 3;
+    public static final int FACET_STABILITY = 4;
+    public static final int FACET_KNOWN = 5;
+
+    /**
+     * The number of facets
+     */
+    public static final int NUM_FACETS = 6;
+
+    /**
+     * Values of the stability facet
+     */
+    public static final int STABLE = 0;
+    public static final int UNSTABLE = 1;
+
+    /**
+     * The numeric properties for the values of the known value facet
+     */
+    private static final int[] KNOWN_PROPS = {
+            ElementTable.PROP_DENSITY,
+            ElementTable.PROP_MELT,
+            ElementTable.PROP_BOIL
+    };
+
+    /**
+     * The number of values of each facet
+     */
+    private static final int[] VALUE_COUNTS = {4, 10, 7, 18, 2, KNOWN_PROPS.length};
+
+    /**
+     * The lower and upper halves of the set of elements for each value of each facet, indexed by
+     * the FACET_ constants and then by value
+     */
+    @NonNull
+    private final long[][] mLow = new long[NUM_FACETS][];
+    @NonNull
+    private final long[][] mHigh = new long[NUM_FACETS][];
+
+    /**
+     * The selected values of each facet as bit masks
+     */
+    @NonNull
+    private final int[] mSelected = new int[NUM_FACETS];
+
+    /**
+     * The lower and upper halves of the set of elements matching the selection of each facet
+     */
+    @NonNull
+    private final long[] mMatchLow = new long[NUM_FACETS];
+    @NonNull
+    private final long[] mMatchHigh = new long[NUM_FACETS];
+
+    /**
+     * Create facets for all elements with no values selected.
+     */
+    public ElementFacets() {
+        this(Elements.getTable(), Elements.getIndex());
+    }
+
+    /**
+     * @param table The table of elements
+     * @param index The indices for the table
+     */
+    ElementFacets(@NonNull ElementTable table, @NonNull ElementIndex index) {
+        final ElementQuery query = new ElementQuery(table, index);
+        final ElementSet stability = new ElementSet();
+        for(int facet = 0; facet < NUM_FACETS; facet++) {
+            mLow[facet] = new long[VALUE_COUNTS[facet]];
+            mHigh[facet] = new long[VALUE_COUNTS[facet]];
+            for(int value = 0; value < VALUE_COUNTS[facet]; value++) {
+                query.reset();
+                switch(facet) {
+                    case FACET_BLOCK:
+                        query.block(ElementTable.getBlockLetter(value));
+                        break;
+                    case FACET_CATEGORY:
+                        query.category(value);
+                        break;
+                    case FACET_PERIOD:
+                        query.period(value + 1);
+                        break;
+                    case FACET_GROUP:
+                        query.group(value + 1);
+                        break;
+                    case FACET_STABILITY:
+                        stability.clear();
+                        for(int i = 0; i < table.size(); i++) {
+                            if(table.isUnstable(i) == (value == UNSTABLE)) {
+                                stability.add(i);
+                            }
+                        }
+                        query.in(stability);
+                        break;
+                    case FACET_KNOWN:
+                        query.known(KNOWN_PROPS[value]);
+                        break;
+                }
+                final ElementSet set = query.getResult();
+                mLow[facet][value] = set.getLow();
+                mHigh[facet][value] = set.getHigh();
+            }
+            mMatchLow[facet] = -1L;
+            mMatchHigh[facet] = -1L;
+        }
+    }
+
+    /**
+     * Get the number of values of a facet. The values of the block and category facets are the
+     * block ordinals and categories, the values of the period and group facets are the period or
+     * group minus one, the values of the stability facet are STABLE and UNSTABLE, and the values
+     * of the known value facet are density, melting point and boiling point.
+     *
+     * @param facet One of the FACET_ constants
+     * @return The number of values
+     */
+    public static int getValueCount(int facet) {
+        return VALUE_COUNTS[facet];
+    }
+
+    /**
+     * Get the numeric property for a value of the known value facet.
+     *
+     * @param value The value of the facet
+     * @return One of the ElementTable.PROP_ constants
+     */
+    public static int getKnownProperty(int value) {
+        return KNOWN_PROPS[value];
+    }
+
+    /**
+     * Select or deselect a value of a facet.
+     *
+     * @param facet    One of the FACET_ constants
+     * @param value    The value of the facet
+     * @param selected Whether the value is selected
+     */
+    public void setSelected(int facet, int value, boolean selected) {
+        setSelection(facet, selected
+                ? mSelected[facet] | (1 << value)
+                : mSelected[facet] & ~(1 << value));
+    }
+
+    /**
+     * Check whether a value of a facet is selected.
+     *
+     * @param facet One of the FACET_ constants
+     * @param value The value of the facet
+     * @return Whether the value is selected
+     */
+    public boolean isSelected(int facet, int value) {
+        return (mSelected[facet] & (1 << value)) != 0;
+    }
+
+    /**
+     * Get the selected values of a facet.
+     *
+     * @param facet One of the FACET_ constants
+     * @return The selected values as a bit mask
+     */
+    public int getSelection(int facet) {
+        return mSelected[facet];
+    }
+
+    /**
+     * Set the selected values of a facet.
+     *
+     * @param facet     One of the FACET_ constants
+     * @param selection The selected values as a bit mask
+     */
+    public void setSelection(int facet, int selection) {
+        selection &= (1 << VALUE_COUNTS[facet]) - 1;
+        mSelected[facet] = selection;
+
+        if(selection == 0) {
+            mMatchLow[facet] = -1L;
+            mMatchHigh[facet] = -1L;
+            return;
+        }
+
+        long low = 0;
+        long high = 0;
+        for(int value = 0; value < VALUE_COUNTS[facet]; value++) {
+            if((selection & (1 << value)) != 0) {
+                low |= mLow[facet][value];
+                high |= mHigh[facet][value];
+            }
+        }
+        mMatchLow[facet] = low;
+        mMatchHigh[facet] = high;
+    }
+
+    /**
+     * Check whether any value of any facet is selected.
+     *
+     * @return Whether there is a selection
+     */
+    public boolean hasSelection() {
+        for(int selection : mSelected) {
+            if(selection != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deselect all values of all facets.
+     */
+    public void clearSelection() {
+        for(int facet = 0; facet < NUM_FACETS; facet++) {
+            setSelection(facet, 0);
+        }
+    }
+
+    /**
+     * Get the set of elements matching the selection of all facets.
+     *
+     * @param out The set to fill with the matching elements
+     */
+    public void getMatches(@NonNull ElementSet out) {
+        long low = -1L;
+        long high = -1L;
+        for(int facet = 0; facet < NUM_FACETS; facet++) {
+            low &= mMatchLow[facet];
+            high &= mMatchHigh[facet];
+        }
+        out.set(low, high);
+    }
+
+    /**
+     * Count the elements for each value of each facet. The count for a value is the number of
+     * elements in the base set that have the value and match the selection of all the other
+     * facets, which is the number of elements that would match if only that value were selected
+     * in its facet.
+     *
+     * @param base   The set of elements to count, such as the results of a text search
+     * @param counts The arrays to fill with the counts, indexed by the FACET_ constants and then
+     *               by value
+     */
+    public void getCounts(@NonNull ElementSet base, @NonNull int[][] counts) {
+        for(int facet = 0; facet < NUM_FACETS; facet++) {
+            long low = base.getLow();
+            long high = base.getHigh();
+            for(int other = 0; other < NUM_FACETS; other++) {
+                if(other != facet) {
+                    low &= mMatchLow[other];
+                    high &= mMatchHigh[other];
+                }
+            }
+
+            final long[] valueLow = mLow[facet];
+            final long[] valueHigh = mHigh[facet];
+            for(int value = 0; value < valueLow.length; value++) {
+                counts[facet][value] = Long.bitCount(low & valueLow[value])
+                        + Long.bitCount(high & valueHigh[value]);
+            }
+        }
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Secondary indices over an ElementTable for answering queries without scanning the table. Each
+ * numeric property has its known values in ascending order along with the set of elements
+ * preceding each position, so any range of values maps to a set with two binary searches and one
+ * set difference. Each attribute has the set of elements for each of its values.
+ *
+ * @author Steve Guidetti
+ */
+class ElementIndex {
+    /**
+     * Identifiers for the attributes
+     */
+    static final int ATTR_GROUP = 0;
+    static final int ATTR_PERIOD = 1;
+    static final int ATTR_BLOCK = 2;
+    static final int ATTR_CATEGORY = 3;
+
+    /**
+     * The number of attributes
+     */
+    static final int NUM_ATTRS = 4;
+
+    /**
+     * The known values of each numeric property in ascending order, indexed by the
+     * ElementTable.PROP_ constants
+     */
+    @NonNull
+    private final double[][] mSortedValues;
+
+    /**
+     * The lower and upper halves of the set of elements preceding each position in the sorted
+     * values of each numeric property
+     */
+    @NonNull
+    private final long[][] mPrefixLow;
+    @NonNull
+    private final long[][] mPrefixHigh;
+
+    /**
+     * The lower and upper halves of the set of elements with each value of each attribute,
+     * indexed by the ATTR_ constants and then by value
+     */
+    @NonNull
+    private final long[][] mAttrLow;
+    @NonNull
+    private final long[][] mAttrHigh;
+
+    /**
+     * @param table The ElementTable to index
+     */
+    ElementIndex(@NonNull ElementTable table) {
+        mSortedValues = new double[ElementTable.NUM_PROPS][];
+        mPrefixLow = new long[ElementTable.NUM_PROPS][];
+        mPrefixHigh = new long[ElementTable.NUM_PROPS][];
+        for(int property = 0; property < ElementTable.NUM_PROPS; property++) {
+            final int[] order = table.getSortOrder(property);
+            final int known = table.getKnownCount(property);
+            final double[] values = new double[known];
+            final long[] low = new long[known + 1];
+            final long[] high = new long[known + 1];
+            for(int i = 0; i < known; i++) {
+                values[i] = table.getValue(property, order[i]);
+                low[i + 1] = low[i];
+                high[i + 1] = high[i];
+                if(order[i] < 64) {
+                    low[i + 1] |= 1L << order[i];
+                } else {
+                    high[i + 1] |= 1L << (order[i] - 64);
+                }
+            }
+            mSortedValues[property] = values;
+            mPrefixLow[property] = low;
+            mPrefixHigh[property] = high;
+        }
+
+        mAttrLow = new long[NUM_ATTRS][];
+        mAttrHigh = new long[NUM_ATTRS][];
+        for(int attr = 0; attr < NUM_ATTRS; attr++) {
+            int max = 0;
+            for(int i = 0; i < table.size(); i++) {
+                max = Math.max(max, getAttribute(table, attr, i));
+            }
+
+            final long[] low = new long[max + 1];
+            final long[] high = new long[max + 1];
+            for(int i = 0; i < table.size(); i++) {
+                final int value = getAttribute(table, attr, i);
+                if(i < 64) {
+                    low[value] |= 1L << i;
+                } else {
+                    high[value] |= 1L << (i - 64);
+                }
+            }
+            mAttrLow[attr] = low;
+            mAttrHigh[attr] = high;
+        }
+    }
+
+    /**
+     * Get the value of an attribute of an element.
+     *
+     * @param table The ElementTable
+     * @param attr  One of the ATTR_ constants
+     * @param index The element index
+     * @return The value of the attribute
+     */
+    private static int getAttribute(@NonNull ElementTable table, int attr, int index) {
+        switch(attr) {
+            case ATTR_GROUP:
+                return table.getGroup(index);
+            case ATTR_PERIOD:
+                return table.getPeriod(index);
+            case ATTR_BLOCK:
+                return table.getBlockIndex(index);
+            default:
+                return table.getCategory(index);
+        }
+    }
+
+    /**
+     * Find the elements with a value of a numeric property within a range. Elements with unknown
+     * values never match, and neither does a range with a NaN bound.
+     *
+     * @param property     One of the ElementTable.PROP_ constants
+     * @param min          The lower bound of the range
+     * @param minInclusive Whether the lower bound is included in the range
+     * @param max          The upper bound of the range
+     * @param maxInclusive Whether the upper bound is included in the range
+     * @param out          The set to fill with the matching elements
+     */
+    void findRange(int property, double min, boolean minInclusive, double max,
+                   boolean maxInclusive, @NonNull ElementSet out) {
+        if(Double.isNaN(min) || Double.isNaN(max)) {
+            out.clear();
+            return;
+        }
+
+        final double[] values = mSortedValues[property];
+        final int from = minInclusive ? lowerBound(values, min) : upperBound(values, min);
+        final int to = maxInclusive ? upperBound(values, max) : lowerBound(values, max);
+        if(to <= from) {
+            out.clear();
+            return;
+        }
+
+        final long[] low = mPrefixLow[property];
+        final long[] high = mPrefixHigh[property];
+        out.set(low[to] & ~low[from], high[to] & ~high[from]);
+    }
+
+    /**
+     * Find the elements with a value of an attribute.
+     *
+     * @param attr  One of the ATTR_ constants
+     * @param value The value of the attribute
+     * @param out   The set to fill with the matching elements
+     */
+    void findEqual(int attr, int value, @NonNull ElementSet out) {
+        if(value < 0 || value >= mAttrLow[attr].length) {
+            out.clear();
+            return;
+        }
+        out.set(mAttrLow[attr][value], mAttrHigh[attr][value]);
+    }
+
+    /**
+     * Find the first position in a sorted array with a value that is not less than a key.
+     *
+     * @param values The sorted values
+     * @param key    The key
+     * @return The position
+     */
+    static int lowerBound(@NonNull double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Find the first position in a sorted array with a value that is greater than a key.
+     *
+     * @param values The sorted values
+     * @param key    The key
+     * @return The position
+     */
+    static int upperBound(@NonNull double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Query for finding elements by their properties. Each condition narrows the set of matching
+ * elements, so the conditions are combined with a logical AND. For example, the elements with a
+ * density between 5 and 10 g/cm³ and an electronegativity above 2:
+ * <pre>
+ * new ElementQuery()
+ *         .range(ElementTable.PROP_DENSITY, 5, 10)
+ *         .greaterThan(ElementTable.PROP_NEGATIVITY, 2)
+ *         .getResult();
+ * </pre>
+ * The conditions are answered from the secondary indices in ElementIndex, so each one costs a
+ * binary search or a lookup followed by a 128-bit set intersection.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementQuery {
+    /**
+     * The indices used to answer the query
+     */
+    @NonNull
+    private final ElementIndex mIndex;
+
+    /**
+     * The table being queried
+     */
+    @NonNull
+    private final ElementTable mTable;
+
+    /**
+     * The set of elements matching all the conditions so far
+     */
+    @NonNull
+    private final ElementSet mResult = new ElementSet();
+
+    /**
+     * Temporary set for the elements matching a single condition
+     */
+    @NonNull
+    private final ElementSet mCondition = new ElementSet();
+
+    /**
+     * Create a query matching all elements.
+     */
+    public ElementQuery() {
+        this(Elements.getTable(), Elements.getIndex());
+    }
+
+    /**
+     * @param table The table being queried
+     * @param index The indices used to answer the query
+     */
+    ElementQuery(@NonNull ElementTable table, @NonNull ElementIndex index) {
+        mTable = table;
+        mIndex = index;
+        reset();
+    }
+
+    /**
+     * Remove all conditions so the query matches all elements.
+     *
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery reset() {
+        mResult.clear();
+        mResult.addRange(mTable.size());
+        return this;
+    }
+
+    /**
+     * Match elements with a value of a numeric property between two values, inclusive.
+     *
+     * @param property One of the ElementTable.PROP_ constants
+     * @param min      The minimum value
+     * @param max      The maximum value
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery range(int property, double min, double max) {
+        mIndex.findRange(property, min, true, max, true, mCondition);
+        mResult.and(mCondition);
+        return this;
+    }
+
+    /**
+     * Match elements with a value of a numeric property greater than a value.
+     *
+     * @param property One of the ElementTable.PROP_ constants
+     * @param value    The value
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery greaterThan(int property, double value) {
+        mIndex.findRange(property, value, false, Double.POSITIVE_INFINITY, true, mCondition);
+        mResult.and(mCondition);
+        return this;
+    }
+
+    /**
+     * Match elements with a value of a numeric property less than a value.
+     *
+     * @param property One of the ElementTable.PROP_ constants
+     * @param value    The value
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery lessThan(int property, double value) {
+        mIndex.findRange(property, Double.NEGATIVE_INFINITY, true, value, false, mCondition);
+        mResult.and(mCondition);
+        return this;
+    }
+
+    /**
+     * Match elements with a known value of a numeric property.
+     *
+     * @param property One of the ElementTable.PROP_ constants
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery known(int property) {
+        return range(property, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Match elements in a group.
+     *
+     * @param group The group, or 0 for elements without a group
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery group(int group) {
+        return equal(ElementIndex.ATTR_GROUP, group);
+    }
+
+    /**
+     * Match elements in a period.
+     *
+     * @param period The period
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery period(int period) {
+        return equal(ElementIndex.ATTR_PERIOD, period);
+    }
+
+    /**
+     * Match elements in a block.
+     *
+     * @param block The block letter
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery block(char block) {
+        return equal(ElementIndex.ATTR_BLOCK, ElementTable.getBlockIndex(block));
+    }
+
+    /**
+     * Match elements in a category.
+     *
+     * @param category The category
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery category(int category) {
+        return equal(ElementIndex.ATTR_CATEGORY, category);
+    }
+
+    /**
+     * Match elements that are members of a set, such as the results of another query or a search.
+     *
+     * @param set The set of elements
+     * @return This query
+     */
+    @NonNull
+    public ElementQuery in(@NonNull ElementSet set) {
+        mResult.and(set);
+        return this;
+    }
+
+    /**
+     * Match elements with a value of an attribute.
+     *
+     * @param attr  One of the ElementIndex.ATTR_ constants
+     * @param value The value of the attribute
+     * @return This query
+     */
+    @NonNull
+    private ElementQuery equal(int attr, int value) {
+        mIndex.findEqual(attr, value, mCondition);
+        mResult.and(mCondition);
+        return this;
+    }
+
+    /**
+     * Get the set of matching elements.
+     *
+     * @return A new set containing the matching elements
+     */
+    @NonNull
+    public ElementSet getResult() {
+        return new ElementSet(mResult);
+    }
+
+    /**
+     * Get the number of matching elements.
+     *
+     * @return The number of matching elements
+     */
+    public int size() {
+        return mResult.size();
+    }
+
+    /**
+     * Get the indices of the matching elements in order by atomic number.
+     *
+     * @return The element indices
+     */
+    @NonNull
+    public int[] getIndices() {
+        final int[] indices = new int[mResult.size()];
+        int n = 0;
+        for(int i = mResult.nextIndex(0); i >= 0; i = mResult.nextIndex(i + 1)) {
+            indices[n++] = i;
+        }
+        return indices;
+    }
+
+    /**
+     * Get the indices of the matching elements in order by a numeric property. Elements with
+     * unknown values are placed last in either direction.
+     *
+     * @param property   One of the ElementTable.PROP_ constants
+     * @param descending Whether to return the elements in descending order
+     * @return The element indices
+     */
+    @NonNull
+    public int[] getIndices(int property, boolean descending) {
+        final int[] order = mTable.getSortOrder(property);
+        final int known = mTable.getKnownCount(property);
+        final int[] indices = new int[mResult.size()];
+        int n = 0;
+        if(descending) {
+            for(int i = known - 1; i >= 0; i--) {
+                if(mResult.contains(order[i])) {
+                    indices[n++] = order[i];
+                }
+            }
+        } else {
+            for(int i = 0; i < known; i++) {
+                if(mResult.contains(order[i])) {
+                    indices[n++] = order[i];
+                }
+            }
+        }
+        for(int i = known; i < order.length; i++) {
+            if(mResult.contains(order[i])) {
+                indices[n++] = order[i];
+            }
+        }
+        return indices;
+    }
+}
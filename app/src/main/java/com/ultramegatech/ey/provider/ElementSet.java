@@ -0,0 +1,239 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+/**
+ * A set of elements stored as a 128 bit bitset, with one bit for each element index (atomic
+ * number minus one). Set operations and counting are constant time and do not allocate.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementSet {
+    /**
+     * The maximum number of elements that can be stored
+     */
+    public static final int CAPACITY = 128;
+
+    /**
+     * The bits for element indices 0-63 and 64-127
+     */
+    private long mLow;
+    private long mHigh;
+
+    public ElementSet() {
+    }
+
+    /**
+     * @param other The set to copy
+     */
+    public ElementSet(ElementSet other) {
+        mLow = other.mLow;
+        mHigh = other.mHigh;
+    }
+
+    /**
+     * Get the bits for element indices 0-63.
+     *
+     * @return The low bits
+     */
+    public long getLow() {
+        return mLow;
+    }
+
+    /**
+     * Get the bits for element indices 64-127.
+     *
+     * @return The high bits
+     */
+    public long getHigh() {
+        return mHigh;
+    }
+
+    /**
+     * Replace the contents of this set with the specified bits.
+     *
+     * @param low  The bits for element indices 0-63
+     * @param high The bits for element indices 64-127
+     */
+    public void set(long low, long high) {
+        mLow = low;
+        mHigh = high;
+    }
+
+    /**
+     * Replace the contents of this set with the contents of another set.
+     *
+     * @param other The other set
+     */
+    public void set(ElementSet other) {
+        mLow = other.mLow;
+        mHigh = other.mHigh;
+    }
+
+    /**
+     * Add an element to this set.
+     *
+     * @param index The element index
+     */
+    public void add(int index) {
+        if(index < 64) {
+            mLow |= 1L << index;
+        } else {
+            mHigh |= 1L << (index - 64);
+        }
+    }
+
+    /**
+     * Remove an element from this set.
+     *
+     * @param index The element index
+     */
+    public void remove(int index) {
+        if(index < 64) {
+            mLow &= ~(1L << index);
+        } else {
+            mHigh &= ~(1L << (index - 64));
+        }
+    }
+
+    /**
+     * Check whether an element is in this set.
+     *
+     * @param index The element index
+     * @return Whether the element is in this set
+     */
+    public boolean contains(int index) {
+        if(index < 64) {
+            return (mLow & (1L << index)) != 0;
+        }
+        return (mHigh & (1L << (index - 64))) != 0;
+    }
+
+    /**
+     * Add the elements with indices from 0 to count - 1 to this set.
+     *
+     * @param count The number of elements
+     */
+    public void addRange(int count) {
+        if(count >= 64) {
+            mLow = -1L;
+            mHigh |= count >= 128 ? -1L : (1L << (count - 64)) - 1;
+        } else {
+            mLow |= (1L << count) - 1;
+        }
+    }
+
+    /**
+     * Remove all elements from this set.
+     */
+    public void clear() {
+        mLow = 0;
+        mHigh = 0;
+    }
+
+    /**
+     * Add all elements of another set to this set.
+     *
+     * @param other The other set
+     */
+    public void or(ElementSet other) {
+        mLow |= other.mLow;
+        mHigh |= other.mHigh;
+    }
+
+    /**
+     * Remove all elements not in another set from this set.
+     *
+     * @param other The other set
+     */
+    public void and(ElementSet other) {
+        mLow &= other.mLow;
+        mHigh &= other.mHigh;
+    }
+
+    /**
+     * Remove all elements of another set from this set.
+     *
+     * @param other The other set
+     */
+    public void andNot(ElementSet other) {
+        mLow &= ~other.mLow;
+        mHigh &= ~other.mHigh;
+    }
+
+    /**
+     * Get the number of elements in this set.
+     *
+     * @return The number of elements
+     */
+    public int size() {
+        return Long.bitCount(mLow) + Long.bitCount(mHigh);
+    }
+
+    /**
+     * Check whether this set is empty.
+     *
+     * @return Whether this set is empty
+     */
+    public boolean isEmpty() {
+        return mLow == 0 && mHigh == 0;
+    }
+
+    /**
+     * Find the next element in this set. Iterate over the set with:
+     * {@code for(int i = set.nextIndex(0); i >= 0; i = set.nextIndex(i + 1))}
+     *
+     * @param from The element index to start from
+     * @return The index of the next element at or after from, or -1 if there are none
+     */
+    public int nextIndex(int from) {
+        if(from < 64) {
+            final long low = mLow & (-1L << from);
+            if(low != 0) {
+                return Long.numberOfTrailingZeros(low);
+            }
+            from = 64;
+        }
+        if(from < 128) {
+            final long high = mHigh & (-1L << (from - 64));
+            if(high != 0) {
+                return 64 + Long.numberOfTrailingZeros(high);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if(!(obj instanceof ElementSet)) {
+            return false;
+        }
+        final ElementSet other = (ElementSet)obj;
+        return mLow == other.mLow && mHigh == other.mHigh;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int)(mLow ^ (mLow >>> 32) ^ mHigh ^ (mHigh >>> 32));
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Column oriented storage for the properties of all the elements. Each property is stored in its
+ * own primitive array indexed by the atomic number minus one. Unknown numeric values are stored
+ * as NaN.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementTable {
+    /**
+     * Identifiers for the numeric properties
+     */
+    public static final int PROP_WEIGHT = 0;
+    public static final int PROP_DENSITY = 1;
+    public static final int PROP_MELT = 2;
+    public static final int PROP_BOIL = 3;
+    public static final int PROP_HEAT = 4;
+    public static final int PROP_NEGATIVITY = 5;
+    public static final int PROP_ABUNDANCE = 6;
+
+    /**
+     * The number of numeric properties
+     */
+    public static final int NUM_PROPS = 7;
+
+    /**
+     * The block letters in order of their ordinal values
+     */
+    @NonNull
+    private static final char[] BLOCKS = {'s', 'p', 'd', 'f'};
+
+    /**
+     * The number of elements in the table
+     */
+    private final int mSize;
+
+    /**
+     * The element symbols
+     */
+    @NonNull
+    private final String[] mSymbols;
+
+    /**
+     * The groups
+     */
+    @NonNull
+    private final byte[] mGroups;
+
+    /**
+     * The periods
+     */
+    @NonNull
+    private final byte[] mPeriods;
+
+    /**
+     * The block ordinals
+     */
+    @NonNull
+    private final byte[] mBlocks;
+
+    /**
+     * The categories
+     */
+    @NonNull
+    private final byte[] mCategories;
+
+    /**
+     * Whether each element is unstable
+     */
+    @NonNull
+    private final boolean[] mUnstable;
+
+    /**
+     * The numeric property columns indexed by the PROP_ constants
+     */
+    @NonNull
+    private final double[][] mValues;
+
+    /**
+     * The offset of the first shell of each element in the shell array, followed by the total
+     * number of shells
+     */
+    @NonNull
+    private final int[] mShellOffsets;
+
+    /**
+     * The number of electrons in each shell of all the elements
+     */
+    @NonNull
+    private final byte[] mShells;
+
+    /**
+     * The source of the electron configurations
+     */
+    @NonNull
+    private final ElementDataFile mDataFile;
+
+    /**
+     * The electron configurations that have been decoded so far
+     */
+    @NonNull
+    private final Element.Configuration[] mConfigurations;
+
+    /**
+     * The sort orders of the numeric properties that have been computed so far, indexed by the
+     * PROP_ constants
+     */
+    @NonNull
+    private final int[][] mSortOrders = new int[NUM_PROPS][];
+
+    /**
+     * The number of known values of each numeric property, indexed by the PROP_ constants
+     */
+    @NonNull
+    private final int[] mKnownCounts = new int[NUM_PROPS];
+
+    /**
+     * @param dataFile     The source of the electron configurations
+     * @param symbols      The element symbols
+     * @param groups       The groups
+     * @param periods      The periods
+     * @param blocks       The block ordinals
+     * @param categories   The categories
+     * @param unstable     Whether each element is unstable
+     * @param values       The numeric property columns indexed by the PROP_ constants
+     * @param shellOffsets The offset of the first shell of each element, followed by the total
+     * @param shells       The number of electrons in each shell of all the elements
+     */
+    ElementTable(@NonNull ElementDataFile dataFile, @NonNull String[] symbols,
+                 @NonNull byte[] groups, @NonNull byte[] periods, @NonNull byte[] blocks,
+                 @NonNull byte[] categories, @NonNull boolean[] unstable,
+                 @NonNull double[][] values, @NonNull int[] shellOffsets,
+                 @NonNull byte[] shells) {
+        mDataFile = dataFile;
+        mSize = symbols.length;
+        mSymbols = symbols;
+        mGroups = groups;
+        mPeriods = periods;
+        mBlocks = blocks;
+        mCategories = categories;
+        mUnstable = unstable;
+        mValues = values;
+        mShellOffsets = shellOffsets;
+        mShells = shells;
+        mConfigurations = new Element.Configuration[mSize];
+    }
+
+    /**
+     * Get the ordinal value of a block.
+     *
+     * @param block The block letter
+     * @return The ordinal value of the block, or -1 if the block is not valid
+     */
+    public static int getBlockIndex(char block) {
+        for(int i = 0; i < BLOCKS.length; i++) {
+            if(BLOCKS[i] == block) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the letter of a block.
+     *
+     * @param index The ordinal value of the block
+     * @return The block letter
+     */
+    public static char getBlockLetter(int index) {
+        return BLOCKS[index];
+    }
+
+    /**
+     * Get the number of elements in the table.
+     *
+     * @return The number of elements
+     */
+    public int size() {
+        return mSize;
+    }
+
+    /**
+     * Get the symbol of an element.
+     *
+     * @param index The element index
+     * @return The element symbol
+     */
+    @NonNull
+    public String getSymbol(int index) {
+        return mSymbols[index];
+    }
+
+    /**
+     * Get the group of an element.
+     *
+     * @param index The element index
+     * @return The group, or 0 for elements without a group
+     */
+    public int getGroup(int index) {
+        return mGroups[index];
+    }
+
+    /**
+     * Get the period of an element.
+     *
+     * @param index The element index
+     * @return The period
+     */
+    public int getPeriod(int index) {
+        return mPeriods[index];
+    }
+
+    /**
+     * Get the block of an element.
+     *
+     * @param index The element index
+     * @return The block letter
+     */
+    public char getBlock(int index) {
+        return BLOCKS[mBlocks[index]];
+    }
+
+    /**
+     * Get the ordinal value of the block of an element.
+     *
+     * @param index The element index
+     * @return The block ordinal
+     */
+    public int getBlockIndex(int index) {
+        return mBlocks[index];
+    }
+
+    /**
+     * Get the category of an element.
+     *
+     * @param index The element index
+     * @return The category
+     */
+    public int getCategory(int index) {
+        return mCategories[index];
+    }
+
+    /**
+     * Check whether an element is unstable.
+     *
+     * @param index The element index
+     * @return Whether the element is unstable
+     */
+    public boolean isUnstable(int index) {
+        return mUnstable[index];
+    }
+
+    /**
+     * Get the value of a numeric property of an element.
+     *
+     * @param property One of the PROP_ constants
+     * @param index    The element index
+     * @return The value, or NaN if the value is unknown
+     */
+    public double getValue(int property, int index) {
+        return mValues[property][index];
+    }
+
+    /**
+     * Get the element indices in ascending order of a numeric property. Elements with unknown
+     * values are placed after all the known values, and elements with equal values are in order
+     * by atomic number. The order is computed once and the same array is returned on every call,
+     * so it must not be modified.
+     *
+     * @param property One of the PROP_ constants
+     * @return The element indices in sorted order
+     */
+    @NonNull
+    public synchronized int[] getSortOrder(int property) {
+        int[] order = mSortOrders[property];
+        if(order == null) {
+            order = sortValues(mValues[property]);
+            int known = 0;
+            while(known < order.length && !Double.isNaN(mValues[property][order[known]])) {
+                known++;
+            }
+            mKnownCounts[property] = known;
+            mSortOrders[property] = order;
+        }
+        return order;
+    }
+
+    /**
+     * Get the number of elements with a known value for a numeric property. These are the
+     * elements at the start of the array returned by getSortOrder.
+     *
+     * @param property One of the PROP_ constants
+     * @return The number of known values
+     */
+    public synchronized int getKnownCount(int property) {
+        getSortOrder(property);
+        return mKnownCounts[property];
+    }
+
+    /**
+     * Compute the indices of an array of values in ascending order, with NaN values last. This is
+     * a stable insertion sort on the primitive values, which is fast enough for the size of the
+     * table and avoids boxing.
+     *
+     * @param values The values
+     * @return The indices of the values in sorted order
+     */
+    @NonNull
+    private static int[] sortValues(@NonNull double[] values) {
+        final int[] order = new int[values.length];
+        for(int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            int j = i;
+            if(!Double.isNaN(value)) {
+                while(j > 0 && (Double.isNaN(values[order[j - 1]])
+                        || values[order[j - 1]] > value)) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+            }
+            order[j] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Get the number of electron shells of an element.
+     *
+     * @param index The element index
+     * @return The number of shells
+     */
+    public int getShellCount(int index) {
+        return mShellOffsets[index + 1] - mShellOffsets[index];
+    }
+
+    /**
+     * Get the number of electrons in a shell of an element.
+     *
+     * @param index The element index
+     * @param shell The index of the shell
+     * @return The number of electrons in the shell
+     */
+    public int getElectrons(int index, int shell) {
+        return mShells[mShellOffsets[index] + shell];
+    }
+
+    /**
+     * Get the electron configuration of an element.
+     *
+     * @param index The element index
+     * @return The electron configuration
+     */
+    @NonNull
+    public Element.Configuration getConfiguration(int index) {
+        Element.Configuration configuration = mConfigurations[index];
+        if(configuration == null) {
+            configuration = mDataFile.readConfiguration(index);
+            mConfigurations[index] = configuration;
+        }
+        return configuration;
+    }
+}
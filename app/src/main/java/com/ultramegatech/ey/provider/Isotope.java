@@ -40,13 +40,13 @@ public class Isotope {
     /**
      * The mass number of the isotope
      */
-    private final int number;
+    final int number;
 
     /**
      * The symbol for the isotope
      */
     @NonNull
-    private final String symbol;
+    final String symbol;
 
     /**
      * The relative atomic mass of the isotope
@@ -0,0 +1,393 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.Elements;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Search index for finding elements by symbol and name. Prefix searches use a trie over the
+ * normalized symbols and names, and substring searches use a suffix array over the normalized
+ * names. Results are returned as ElementSet bitsets. The index is immutable once built, so it may
+ * be searched from any thread.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementSearchIndex {
+    /**
+     * The minimum query length for matching names by substring
+     */
+    private static final int MIN_SUBSTRING_LENGTH = 2;
+
+    /**
+     * The character separating names in the suffix array text
+     */
+    private static final char SEPARATOR = '\0';
+
+    /**
+     * The index for the current Locale
+     */
+    private static ElementSearchIndex sInstance;
+
+    /**
+     * The Locale used to normalize text
+     */
+    @NonNull
+    private final Locale mLocale;
+
+    /**
+     * The trie nodes, stored as parallel arrays. Node 0 is the root.
+     */
+    private char[] mNodeChars = new char[256];
+    private int[] mNodeChild = new int[256];
+    private int[] mNodeSibling = new int[256];
+    private long[] mNodeLow = new long[256];
+    private long[] mNodeHigh = new long[256];
+    private long[] mNodeTermLow = new long[256];
+    private long[] mNodeTermHigh = new long[256];
+    private int mNodeCount;
+
+    /**
+     * The normalized names joined by separators
+     */
+    @NonNull
+    private final char[] mText;
+
+    /**
+     * The element index of the name containing each position of the text
+     */
+    @NonNull
+    private final byte[] mTextOwners;
+
+    /**
+     * The starting positions of the suffixes of the text, in sorted order
+     */
+    @NonNull
+    private final int[] mSuffixes;
+
+    /**
+     * Get the search index for the current Locale, building it if necessary.
+     *
+     * @param context The Context
+     * @return The search index
+     */
+    @NonNull
+    public static synchronized ElementSearchIndex getInstance(@NonNull Context context) {
+        final Locale locale = Locale.getDefault();
+        if(sInstance == null || !sInstance.mLocale.equals(locale)) {
+            final Element[] elements = Elements.getElements();
+            final String[] symbols = new String[elements.length];
+            final String[] names = new String[elements.length];
+            for(int i = 0; i < elements.length; i++) {
+                symbols[i] = elements[i].symbol;
+                names[i] = context.getString(ElementUtils.getElementName(elements[i].number));
+            }
+            sInstance = new ElementSearchIndex(symbols, names, locale);
+        }
+        return sInstance;
+    }
+
+    /**
+     * @param symbols The element symbols, indexed by atomic number minus one
+     * @param names   The element names, indexed by atomic number minus one
+     * @param locale  The Locale used to normalize text
+     */
+    public ElementSearchIndex(@NonNull String[] symbols, @NonNull String[] names,
+                              @NonNull Locale locale) {
+        mLocale = locale;
+
+        mNodeCount = 1;
+        mNodeChild[0] = -1;
+        mNodeSibling[0] = -1;
+        for(int i = 0; i < symbols.length; i++) {
+            insert(normalize(symbols[i]), i);
+            insert(normalize(names[i]), i);
+        }
+
+        final StringBuilder text = new StringBuilder();
+        for(String name : names) {
+            text.append(normalize(name)).append(SEPARATOR);
+        }
+        mText = text.toString().toCharArray();
+        mTextOwners = new byte[mText.length];
+        int owner = 0;
+        for(int i = 0; i < mText.length; i++) {
+            mTextOwners[i] = (byte)owner;
+            if(mText[i] == SEPARATOR) {
+                owner++;
+            }
+        }
+
+        final Integer[] suffixes = new Integer[mText.length];
+        for(int i = 0; i < suffixes.length; i++) {
+            suffixes[i] = i;
+        }
+        Arrays.sort(suffixes, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer l, Integer r) {
+                return compareSuffix(l, r);
+            }
+        });
+        mSuffixes = new int[suffixes.length];
+        for(int i = 0; i < suffixes.length; i++) {
+            mSuffixes[i] = suffixes[i];
+        }
+    }
+
+    /**
+     * Normalize text for searching by removing diacritics and converting to lower case.
+     *
+     * @param text The text
+     * @return The normalized text
+     */
+    @NonNull
+    private String normalize(@NonNull CharSequence text) {
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final StringBuilder builder = new StringBuilder(decomposed.length());
+        for(int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if(Character.getType(c) != Character.NON_SPACING_MARK && c != SEPARATOR) {
+                builder.append(c);
+            }
+        }
+        return builder.toString().toLowerCase(mLocale);
+    }
+
+    /**
+     * Add a term to the trie.
+     *
+     * @param term  The normalized term
+     * @param index The element index
+     */
+    private void insert(@NonNull String term, int index) {
+        final long low = index < 64 ? 1L << index : 0;
+        final long high = index < 64 ? 0 : 1L << (index - 64);
+
+        int node = 0;
+        for(int i = 0; i < term.length(); i++) {
+            int child = findChild(node, term.charAt(i));
+            if(child < 0) {
+                child = addNode(node, term.charAt(i));
+            }
+            node = child;
+            mNodeLow[node] |= low;
+            mNodeHigh[node] |= high;
+        }
+        mNodeTermLow[node] |= low;
+        mNodeTermHigh[node] |= high;
+    }
+
+    /**
+     * Find a child of a trie node.
+     *
+     * @param node The parent node
+     * @param c    The character of the child
+     * @return The child node, or -1 if it does not exist
+     */
+    private int findChild(int node, char c) {
+        for(int child = mNodeChild[node]; child >= 0; child = mNodeSibling[child]) {
+            if(mNodeChars[child] == c) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Add a child to a trie node.
+     *
+     * @param node The parent node
+     * @param c    The character of the child
+     * @return The new node
+     */
+    private int addNode(int node, char c) {
+        if(mNodeCount == mNodeChars.length) {
+            final int capacity = mNodeCount * 2;
+            mNodeChars = Arrays.copyOf(mNodeChars, capacity);
+            mNodeChild = Arrays.copyOf(mNodeChild, capacity);
+            mNodeSibling = Arrays.copyOf(mNodeSibling, capacity);
+            mNodeLow = Arrays.copyOf(mNodeLow, capacity);
+            mNodeHigh = Arrays.copyOf(mNodeHigh, capacity);
+            mNodeTermLow = Arrays.copyOf(mNodeTermLow, capacity);
+            mNodeTermHigh = Arrays.copyOf(mNodeTermHigh, capacity);
+        }
+        final int child = mNodeCount++;
+        mNodeChars[child] = c;
+        mNodeChild[child] = -1;
+        mNodeSibling[child] = mNodeChild[node];
+        mNodeChild[node] = child;
+        return child;
+    }
+
+    /**
+     * Find the trie node for a normalized term.
+     *
+     * @param term The normalized term
+     * @return The node, or -1 if no terms begin with the term
+     */
+    private int findNode(@NonNull String term) {
+        int node = 0;
+        for(int i = 0; i < term.length() && node >= 0; i++) {
+            node = findChild(node, term.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Compare two suffixes of the text.
+     *
+     * @param l The start of the first suffix
+     * @param r The start of the second suffix
+     * @return The comparison result
+     */
+    private int compareSuffix(int l, int r) {
+        while(l < mText.length && r < mText.length) {
+            if(mText[l] != mText[r]) {
+                return mText[l] - mText[r];
+            }
+            l++;
+            r++;
+        }
+        return (mText.length - l) - (mText.length - r);
+    }
+
+    /**
+     * Compare a suffix of the text to a query, considering only the length of the query.
+     *
+     * @param suffix The start of the suffix
+     * @param query  The normalized query
+     * @return The comparison result, which is 0 if the suffix starts with the query
+     */
+    private int compareQuery(int suffix, @NonNull String query) {
+        for(int i = 0; i < query.length(); i++) {
+            if(suffix + i >= mText.length) {
+                return -1;
+            }
+            final char c = mText[suffix + i];
+            if(c != query.charAt(i)) {
+                return c - query.charAt(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Find the elements with a symbol or name that starts with a query.
+     *
+     * @param query The query
+     * @param out   The set to fill with the matching elements
+     */
+    public void findPrefix(@NonNull CharSequence query, @NonNull ElementSet out) {
+        final int node = findNode(normalize(query));
+        if(node < 0) {
+            out.clear();
+        } else {
+            out.set(mNodeLow[node], mNodeHigh[node]);
+        }
+    }
+
+    /**
+     * Find the elements with a name that contains a query.
+     *
+     * @param query The query
+     * @param out   The set to fill with the matching elements
+     */
+    public void findSubstring(@NonNull CharSequence query, @NonNull ElementSet out) {
+        out.clear();
+        findSubstring(normalize(query), out);
+    }
+
+    /**
+     * Add the elements with a name that contains a normalized query to a set.
+     *
+     * @param query The normalized query
+     * @param out   The set to add the matching elements to
+     */
+    private void findSubstring(@NonNull String query, @NonNull ElementSet out) {
+        int low = 0;
+        int high = mSuffixes.length;
+        while(low < high) {
+            final int mid = (low + high) >>> 1;
+            if(compareQuery(mSuffixes[mid], query) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for(int i = low; i < mSuffixes.length && compareQuery(mSuffixes[i], query) == 0; i++) {
+            out.add(mTextOwners[mSuffixes[i]]);
+        }
+    }
+
+    /**
+     * Find the elements matching a query typed by the user. This includes elements with a symbol
+     * or name starting with the query, and elements with a name containing the query if the query
+     * is long enough.
+     *
+     * @param query The query
+     * @param out   The set to fill with the matching elements
+     */
+    public void search(@NonNull CharSequence query, @NonNull ElementSet out) {
+        final String normalized = normalize(query);
+        final int node = findNode(normalized);
+        if(node < 0) {
+            out.clear();
+        } else {
+            out.set(mNodeLow[node], mNodeHigh[node]);
+        }
+        if(normalized.length() >= MIN_SUBSTRING_LENGTH) {
+            findSubstring(normalized, out);
+        }
+    }
+
+    /**
+     * Find the element with a symbol or name exactly matching a query, ignoring case and
+     * diacritics.
+     *
+     * @param query The query
+     * @return The atomic number of the element, or 0 if there is no single matching element
+     */
+    public int findExact(@NonNull CharSequence query) {
+        final int node = findNode(normalize(query));
+        if(node < 0) {
+            return 0;
+        }
+        final long low = mNodeTermLow[node];
+        final long high = mNodeTermHigh[node];
+        if(Long.bitCount(low) + Long.bitCount(high) != 1) {
+            return 0;
+        }
+        return (low != 0 ? Long.numberOfTrailingZeros(low)
+                : 64 + Long.numberOfTrailingZeros(high)) + 1;
+    }
+}
@@ -29,8 +29,8 @@ import androidx.annotation.NonNull;
 
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.provider.Element;
-
-import java.util.HashMap;
+import com.ultramegatech.ey.provider.ElementTable;
+import com.ultramegatech.ey.provider.Elements;
 
 /**
  * Utility class for common methods relating to chemical elements.
@@ -129,10 +129,20 @@ public class ElementUtils {
     };
 
     /**
-     * The map of keys to color values
+     * The color values for the category and block color schemes, indexed by category and block
+     * ordinal
      */
     @NonNull
-    private final static HashMap<String, Integer> COLOR_MAP = new HashMap<>();
+    private static int[] sCategoryKeyColors = new int[0];
+    @NonNull
+    private static int[] sBlockKeyColors = new int[0];
+
+    /**
+     * The color of each element for the category and block color schemes, indexed by atomic
+     * number minus one
+     */
+    private static int[] sCategoryColors;
+    private static int[] sBlockColors;
 
     /**
      * Perform initial setup.
@@ -141,29 +151,22 @@ public class ElementUtils {
      */
     public static void setup(@NonNull Context context) {
         final Resources res = context.getResources();
-
-        String[] keys = res.getStringArray(R.array.ptBlocks);
-        int[] colorValues = res.getIntArray(R.array.ptBlockColors);
-        for(int i = 0; i < keys.length; i++) {
-            COLOR_MAP.put(keys[i], colorValues[i]);
-        }
-
-        keys = new String[] {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
-        colorValues = res.getIntArray(R.array.ptCategoryColors);
-        for(int i = 0; i < keys.length; i++) {
-            COLOR_MAP.put(keys[i], colorValues[i]);
-        }
+        sBlockKeyColors = res.getIntArray(R.array.ptBlockColors);
+        sCategoryKeyColors = res.getIntArray(R.array.ptCategoryColors);
+        sCategoryColors = null;
+        sBlockColors = null;
     }
 
     /**
-     * Get the color value associated with a key.
+     * Get the color values for the categories or blocks of a color scheme. The array must not be
+     * modified.
      *
-     * @param key The key
-     * @return The color value
+     * @param scheme Settings.COLOR_CAT or Settings.COLOR_BLOCK
+     * @return The color values, indexed by category or block ordinal
      */
-    public static int getKeyColor(@NonNull Object key) {
-        final Integer color = COLOR_MAP.get(key.toString());
-        return color == null ? 0 : color;
+    @NonNull
+    public static int[] getKeyColors(int scheme) {
+        return scheme == Settings.COLOR_BLOCK ? sBlockKeyColors : sCategoryKeyColors;
     }
 
     /**
@@ -173,22 +176,39 @@ public class ElementUtils {
      * @return The color value
      */
     public static int getElementColor(@NonNull Element element) {
-        final Integer color = COLOR_MAP.get(getColorKey(element));
-        return color == null ? 0 : color;
+        return getElementColors(PreferenceUtils.getSettings())[element.number - 1];
     }
 
     /**
-     * Get the key to use for coloring an element.
+     * Get the color of every element for the color scheme of the settings. The arrays are built
+     * once for each scheme and must not be modified.
      *
-     * @param element The Element
-     * @return The key
+     * @param settings The Settings
+     * @return The color of each element, indexed by atomic number minus one
      */
     @NonNull
-    private static String getColorKey(@NonNull Element element) {
-        if(PreferenceUtils.COLOR_CAT.equals(PreferenceUtils.getPrefElementColors())) {
-            return String.valueOf(element.category);
+    public static int[] getElementColors(@NonNull Settings settings) {
+        if(settings.elementColors == Settings.COLOR_HEAT) {
+            return HeatMap.getColors(settings.heatProperty, settings.heatScale);
+        }
+
+        final boolean byBlock = settings.elementColors == Settings.COLOR_BLOCK;
+        int[] colors = byBlock ? sBlockColors : sCategoryColors;
+        if(colors == null) {
+            final ElementTable table = Elements.getTable();
+            final int[] keyColors = getKeyColors(settings.elementColors);
+            colors = new int[table.size()];
+            for(int i = 0; i < colors.length; i++) {
+                final int key = byBlock ? table.getBlockIndex(i) : table.getCategory(i);
+                colors[i] = key < keyColors.length ? keyColors[key] : 0;
+            }
+            if(byBlock) {
+                sBlockColors = colors;
+            } else {
+                sCategoryColors = colors;
+            }
         }
-        return String.valueOf(element.block);
+        return colors;
     }
 
     /**
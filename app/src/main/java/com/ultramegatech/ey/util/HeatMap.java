@@ -0,0 +1,293 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.ElementTable;
+import com.ultramegatech.ey.provider.Elements;
+
+/**
+ * Maps the numeric properties of the elements to colors on a continuous scale. Each element is
+ * assigned a bucket in a precomputed color lookup table once for each property and scale, so
+ * changing the property only swaps the array of colors.
+ *
+ * @author Steve Guidetti
+ */
+public class HeatMap {
+    /**
+     * The number of entries in each color lookup table
+     */
+    public static final int LUT_SIZE = 256;
+
+    /**
+     * The color used for elements with unknown values
+     */
+    public static final int COLOR_UNKNOWN = 0xffa0a0a0;
+
+    /**
+     * The number of Settings.HEAT_ scale values
+     */
+    private static final int NUM_SCALES = 3;
+
+    /**
+     * The bucket assigned to elements with unknown values
+     */
+    private static final short BUCKET_UNKNOWN = -1;
+
+    /**
+     * The evenly spaced color stops for the sequential and diverging gradients
+     */
+    @NonNull
+    private static final int[] SEQUENTIAL_STOPS = {
+            0xffffffcc, 0xfffed976, 0xfffeb24c, 0xfffd8d3c, 0xfff03b20, 0xffbd0026
+    };
+    @NonNull
+    private static final int[] DIVERGING_STOPS = {
+            0xff2166ac, 0xff67a9cf, 0xffd1e5f0, 0xfff7f7f7, 0xfffddbc7, 0xffef8a62, 0xffb2182b
+    };
+
+    /**
+     * The color lookup tables for the sequential and diverging gradients
+     */
+    @NonNull
+    private static final int[] SEQUENTIAL_LUT = buildLut(SEQUENTIAL_STOPS);
+    @NonNull
+    private static final int[] DIVERGING_LUT = buildLut(DIVERGING_STOPS);
+
+    /**
+     * The ElementTable the cached values were calculated from
+     */
+    private static ElementTable sTable;
+
+    /**
+     * The cached buckets, colors, and range indices, indexed by property and scale
+     */
+    private static final short[][] sBuckets = new short[ElementTable.NUM_PROPS * NUM_SCALES][];
+    private static final int[][] sColors = new int[ElementTable.NUM_PROPS * NUM_SCALES][];
+    private static final int[][] sRanges = new int[ElementTable.NUM_PROPS * NUM_SCALES][];
+
+    /**
+     * Build a color lookup table by interpolating between evenly spaced color stops.
+     *
+     * @param stops The color stops
+     * @return The color lookup table
+     */
+    @NonNull
+    private static int[] buildLut(@NonNull int[] stops) {
+        final int[] lut = new int[LUT_SIZE];
+        final int segments = stops.length - 1;
+        for(int i = 0; i < LUT_SIZE; i++) {
+            final float pos = i * segments / (float)(LUT_SIZE - 1);
+            final int stop = Math.min((int)pos, segments - 1);
+            final float t = pos - stop;
+            final int from = stops[stop];
+            final int to = stops[stop + 1];
+            lut[i] = 0xff000000
+                    | interpolate(from >> 16 & 0xff, to >> 16 & 0xff, t) << 16
+                    | interpolate(from >> 8 & 0xff, to >> 8 & 0xff, t) << 8
+                    | interpolate(from & 0xff, to & 0xff, t);
+        }
+        return lut;
+    }
+
+    /**
+     * Interpolate between two color channel values.
+     *
+     * @param from The starting value
+     * @param to   The ending value
+     * @param t    The position between the values from 0 to 1
+     * @return The interpolated value
+     */
+    private static int interpolate(int from, int to, float t) {
+        return Math.round(from + (to - from) * t);
+    }
+
+    /**
+     * Get the color lookup table for a scale. The array must not be modified.
+     *
+     * @param scale One of the Settings.HEAT_ values
+     * @return The color lookup table with LUT_SIZE entries
+     */
+    @NonNull
+    public static int[] getLut(int scale) {
+        return scale == Settings.HEAT_DIVERGING ? DIVERGING_LUT : SEQUENTIAL_LUT;
+    }
+
+    /**
+     * Get the color of every element for a property and scale. The arrays are built once for
+     * each property and scale and must not be modified.
+     *
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @return The color of each element, indexed by atomic number minus one
+     */
+    @NonNull
+    public static synchronized int[] getColors(int property, int scale) {
+        final int key = getKey(property, scale);
+        if(sColors[key] == null) {
+            final short[] buckets = getBuckets(property, scale);
+            final int[] lut = getLut(scale);
+            final int[] colors = new int[buckets.length];
+            for(int i = 0; i < buckets.length; i++) {
+                colors[i] = buckets[i] == BUCKET_UNKNOWN ? COLOR_UNKNOWN : lut[buckets[i]];
+            }
+            sColors[key] = colors;
+        }
+        return sColors[key];
+    }
+
+    /**
+     * Get the elements holding the values at the low end, the center, and the high end of the
+     * color scale for a property and scale. The array must not be modified.
+     *
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @return The indices of the low, center, and high elements, with -1 for the center unless
+     * the scale is diverging, or all -1 if no values are known
+     */
+    @NonNull
+    public static synchronized int[] getRange(int property, int scale) {
+        getBuckets(property, scale);
+        return sRanges[getKey(property, scale)];
+    }
+
+    /**
+     * Get the lookup table bucket of every element for a property and scale, calculating them if
+     * they are not cached.
+     *
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @return The bucket of each element, or BUCKET_UNKNOWN for unknown values
+     */
+    @NonNull
+    private static short[] getBuckets(int property, int scale) {
+        final ElementTable table = Elements.getTable();
+        if(table != sTable) {
+            for(int i = 0; i < sBuckets.length; i++) {
+                sBuckets[i] = null;
+                sColors[i] = null;
+                sRanges[i] = null;
+            }
+            sTable = table;
+        }
+
+        final int key = getKey(property, scale);
+        if(sBuckets[key] == null) {
+            final int[] range = findRange(table, property, scale);
+            final short[] buckets = new short[table.size()];
+            for(int i = 0; i < buckets.length; i++) {
+                final double value = table.getValue(property, i);
+                if(Double.isNaN(value)) {
+                    buckets[i] = BUCKET_UNKNOWN;
+                } else {
+                    final double pos = getPosition(table, property, scale, range, value);
+                    buckets[i] = (short)Math.max(0,
+                            Math.min(LUT_SIZE - 1, Math.round(pos * (LUT_SIZE - 1))));
+                }
+            }
+            sBuckets[key] = buckets;
+            sRanges[key] = range;
+        }
+        return sBuckets[key];
+    }
+
+    /**
+     * Find the elements holding the values at the ends and the center of the scale.
+     *
+     * @param table    The ElementTable
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @return The indices of the low, center, and high elements
+     */
+    @NonNull
+    private static int[] findRange(@NonNull ElementTable table, int property, int scale) {
+        final int[] order = table.getSortOrder(property);
+        final int known = table.getKnownCount(property);
+        if(known == 0) {
+            return new int[] {-1, -1, -1};
+        }
+
+        int low = 0;
+        if(scale == Settings.HEAT_LOG) {
+            while(low < known - 1 && table.getValue(property, order[low]) <= 0) {
+                low++;
+            }
+        }
+        final int center = scale == Settings.HEAT_DIVERGING ? order[(known - 1) / 2] : -1;
+        return new int[] {order[low], center, order[known - 1]};
+    }
+
+    /**
+     * Get the position of a value on the color scale.
+     *
+     * @param table    The ElementTable
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @param range    The indices of the low, center, and high elements
+     * @param value    The value
+     * @return The position from 0 to 1
+     */
+    private static double getPosition(@NonNull ElementTable table, int property, int scale,
+                                      @NonNull int[] range, double value) {
+        final double low = table.getValue(property, range[0]);
+        final double high = table.getValue(property, range[2]);
+        switch(scale) {
+            case Settings.HEAT_LOG:
+                if(low <= 0 || value <= low) {
+                    return 0;
+                }
+                return ratio(Math.log(value) - Math.log(low), Math.log(high) - Math.log(low));
+            case Settings.HEAT_DIVERGING:
+                final double center = table.getValue(property, range[1]);
+                if(value < center) {
+                    return 0.5 * ratio(value - low, center - low);
+                }
+                return 0.5 + 0.5 * ratio(value - center, high - center);
+            default:
+                return ratio(value - low, high - low);
+        }
+    }
+
+    /**
+     * Divide two values, returning 0 if the divisor is not positive.
+     *
+     * @param value   The dividend
+     * @param divisor The divisor
+     * @return The quotient
+     */
+    private static double ratio(double value, double divisor) {
+        return divisor > 0 ? value / divisor : 0;
+    }
+
+    /**
+     * Get the index into the caches for a property and scale.
+     *
+     * @param property One of the ElementTable.PROP_ values
+     * @param scale    One of the Settings.HEAT_ values
+     * @return The cache index
+     */
+    private static int getKey(int property, int scale) {
+        return property * NUM_SCALES + scale;
+    }
+}
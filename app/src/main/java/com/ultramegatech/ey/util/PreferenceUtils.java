@@ -24,10 +24,16 @@ package com.ultramegatech.ey.util;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
 
 import androidx.annotation.NonNull;
 import androidx.preference.PreferenceManager;
 
+import java.util.ArrayList;
+
 /**
  * Helpers for the shared preferences of the application.
  *
@@ -43,6 +49,8 @@ public class PreferenceUtils {
     public static final String KEY_ELEMENT_COLORS = "elementColors";
     public static final String KEY_SUBTEXT_VALUE = "subtextValue";
     public static final String KEY_SHOW_CONTROLS = "showControls";
+    public static final String KEY_HEAT_PROPERTY = "heatProperty";
+    public static final String KEY_HEAT_SCALE = "heatScale";
 
     /**
      * Temperature unit preference values
@@ -56,6 +64,14 @@ public class PreferenceUtils {
      */
     public static final String COLOR_CAT = "category";
     public static final String COLOR_BLOCK = "block";
+    public static final String COLOR_HEAT = "heat";
+
+    /**
+     * Heat map scale preference values
+     */
+    public static final String HEAT_LINEAR = "linear";
+    public static final String HEAT_LOG = "log";
+    public static final String HEAT_DIVERGING = "diverging";
 
     /**
      * Subtext value values
@@ -68,75 +84,148 @@ public class PreferenceUtils {
     public static final String SUBTEXT_NEGATIVITY = "neg";
     public static final String SUBTEXT_ABUNDANCE = "ab";
 
+    /**
+     * Callback interface for changes to the settings.
+     */
+    public interface OnSettingsChangedListener {
+        /**
+         * Called at most once per frame after one or more preferences have changed.
+         *
+         * @param settings The current settings
+         * @param changes  The Settings.CHANGED_ flags for the values that have changed
+         */
+        void onSettingsChanged(@NonNull Settings settings, int changes);
+    }
+
     private static SharedPreferences sPreferences;
 
+    /**
+     * The current settings snapshot, replaced whenever a preference changes
+     */
+    private static volatile Settings sSettings;
+
+    /**
+     * The settings snapshot that was passed to the listeners in the last notification
+     */
+    private static Settings sNotifiedSettings;
+
+    /**
+     * Whether a change notification has been scheduled
+     */
+    private static boolean sNotifyPending;
+
+    /**
+     * The registered listeners for changes to the settings
+     */
+    @NonNull
+    private static final ArrayList<OnSettingsChangedListener> sListeners = new ArrayList<>();
+
+    /**
+     * Handler for scheduling notifications on devices without Choreographer
+     */
+    private static Handler sHandler;
+
+    /**
+     * Listener to rebuild the settings snapshot, held here since SharedPreferences only keeps
+     * weak references to listeners
+     */
+    @NonNull
+    private static final SharedPreferences.OnSharedPreferenceChangeListener sPreferenceListener =
+            (sharedPreferences, key) -> {
+                sSettings = new Settings(sharedPreferences);
+                scheduleNotify();
+            };
+
     public static void setup(@NonNull Context context) {
         sPreferences = PreferenceManager.getDefaultSharedPreferences(context);
+        sSettings = new Settings(sPreferences);
+        sNotifiedSettings = sSettings;
+        sHandler = new Handler(Looper.getMainLooper());
+        sPreferences.registerOnSharedPreferenceChangeListener(sPreferenceListener);
     }
 
     /**
-     * Get the value of the dark theme preference.
+     * Get the current settings snapshot. This may be called from any thread without locking.
      *
-     * @return Whether to use the dark theme
+     * @return The current settings
      */
-    public static boolean getPrefDarkTheme() {
-        return sPreferences.getBoolean(KEY_DARK_THEME, true);
+    @NonNull
+    public static Settings getSettings() {
+        return sSettings;
     }
 
     /**
-     * Get the value of the temperature unit preference.
+     * Register a listener for changes to the settings. Must be called on the main thread.
      *
-     * @return The unit to use for temperature values
+     * @param listener The listener
      */
-    @NonNull
-    public static String getPrefTempUnit() {
-        return sPreferences.getString(KEY_TEMP_UNITS, TEMP_K);
+    public static void registerOnSettingsChangedListener(
+            @NonNull OnSettingsChangedListener listener) {
+        if(!sListeners.contains(listener)) {
+            sListeners.add(listener);
+        }
     }
 
     /**
-     * Get the value of the element colors preference.
+     * Unregister a listener for changes to the settings. Must be called on the main thread.
      *
-     * @return The property to use for coloring elements
+     * @param listener The listener
      */
-    @NonNull
-    public static String getPrefElementColors() {
-        return sPreferences.getString(KEY_ELEMENT_COLORS, COLOR_CAT);
+    public static void unregisterOnSettingsChangedListener(
+            @NonNull OnSettingsChangedListener listener) {
+        sListeners.remove(listener);
     }
 
     /**
-     * Set value of the element colors preference.
-     *
-     * @param value The value
+     * Schedule the listeners to be notified on the next frame, so that multiple preference
+     * changes result in a single notification.
      */
-    public static void setPrefElementColors(@NonNull String value) {
-        sPreferences.edit().putString(KEY_ELEMENT_COLORS, value).apply();
+    private static void scheduleNotify() {
+        if(sNotifyPending) {
+            return;
+        }
+        sNotifyPending = true;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            Choreographer.getInstance().postFrameCallback(frameTimeNanos -> notifyListeners());
+        } else {
+            sHandler.post(PreferenceUtils::notifyListeners);
+        }
     }
 
     /**
-     * Get value of the block subtext value preference.
-     *
-     * @return The value of the block subtext value preference
+     * Notify the listeners of the changes since the last notification.
      */
-    @NonNull
-    public static String getPrefSubtextValue() {
-        return sPreferences.getString(KEY_SUBTEXT_VALUE, SUBTEXT_WEIGHT);
+    private static void notifyListeners() {
+        sNotifyPending = false;
+        final Settings settings = sSettings;
+        final int changes = settings.getChanges(sNotifiedSettings);
+        sNotifiedSettings = settings;
+        if(changes == 0) {
+            return;
+        }
+
+        final OnSettingsChangedListener[] listeners =
+                sListeners.toArray(new OnSettingsChangedListener[0]);
+        for(OnSettingsChangedListener listener : listeners) {
+            listener.onSettingsChanged(settings, changes);
+        }
     }
 
     /**
-     * Set value of the block subtext value preference.
+     * Set value of the element colors preference.
      *
      * @param value The value
      */
-    public static void setPrefSubtextValue(@NonNull String value) {
-        sPreferences.edit().putString(KEY_SUBTEXT_VALUE, value).apply();
+    public static void setPrefElementColors(@NonNull String value) {
+        sPreferences.edit().putString(KEY_ELEMENT_COLORS, value).apply();
     }
 
     /**
-     * Get the value of the show controls preference.
+     * Set value of the block subtext value preference.
      *
-     * @return The value of the show controls preference
+     * @param value The value
      */
-    public static boolean getPrefShowControls() {
-        return sPreferences.getBoolean(KEY_SHOW_CONTROLS, true);
+    public static void setPrefSubtextValue(@NonNull String value) {
+        sPreferences.edit().putString(KEY_SUBTEXT_VALUE, value).apply();
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Immutable snapshot of the shared preferences of the application. String preference values are
+ * converted to int constants so they can be compared without string comparisons.
+ *
+ * @author Steve Guidetti
+ */
+public class Settings {
+    /**
+     * Temperature unit values
+     */
+    public static final int TEMP_K = 0;
+    public static final int TEMP_C = 1;
+    public static final int TEMP_F = 2;
+
+    /**
+     * Element color values
+     */
+    public static final int COLOR_CAT = 0;
+    public static final int COLOR_BLOCK = 1;
+    public static final int COLOR_HEAT = 2;
+
+    /**
+     * Heat map scale values
+     */
+    public static final int HEAT_LINEAR = 0;
+    public static final int HEAT_LOG = 1;
+    public static final int HEAT_DIVERGING = 2;
+
+    /**
+     * Subtext value values
+     */
+    public static final int SUBTEXT_WEIGHT = 0;
+    public static final int SUBTEXT_DENSITY = 1;
+    public static final int SUBTEXT_MELT = 2;
+    public static final int SUBTEXT_BOIL = 3;
+    public static final int SUBTEXT_HEAT = 4;
+    public static final int SUBTEXT_NEGATIVITY = 5;
+    public static final int SUBTEXT_ABUNDANCE = 6;
+
+    /**
+     * Flags indicating which values have changed between two snapshots
+     */
+    public static final int CHANGED_DARK_THEME = 1;
+    public static final int CHANGED_TEMP_UNIT = 1 << 1;
+    public static final int CHANGED_ELEMENT_COLORS = 1 << 2;
+    public static final int CHANGED_SUBTEXT_VALUE = 1 << 3;
+    public static final int CHANGED_SHOW_CONTROLS = 1 << 4;
+
+    /**
+     * The preference values corresponding to the int constants
+     */
+    static final String[] TEMP_UNITS = {
+            PreferenceUtils.TEMP_K, PreferenceUtils.TEMP_C, PreferenceUtils.TEMP_F
+    };
+    static final String[] ELEMENT_COLORS = {
+            PreferenceUtils.COLOR_CAT, PreferenceUtils.COLOR_BLOCK, PreferenceUtils.COLOR_HEAT
+    };
+    static final String[] HEAT_SCALES = {
+            PreferenceUtils.HEAT_LINEAR, PreferenceUtils.HEAT_LOG, PreferenceUtils.HEAT_DIVERGING
+    };
+    static final String[] SUBTEXT_VALUES = {
+            PreferenceUtils.SUBTEXT_WEIGHT, PreferenceUtils.SUBTEXT_DENSITY,
+            PreferenceUtils.SUBTEXT_MELT, PreferenceUtils.SUBTEXT_BOIL,
+            PreferenceUtils.SUBTEXT_HEAT, PreferenceUtils.SUBTEXT_NEGATIVITY,
+            PreferenceUtils.SUBTEXT_ABUNDANCE
+    };
+
+    /**
+     * Whether to use the dark theme
+     */
+    public final boolean darkTheme;
+
+    /**
+     * The unit to use for temperature values, one of the TEMP_ constants
+     */
+    public final int tempUnit;
+
+    /**
+     * The property to use for coloring elements, one of the COLOR_ constants
+     */
+    public final int elementColors;
+
+    /**
+     * The value to display below the symbol of each block, one of the SUBTEXT_ constants
+     */
+    public final int subtextValue;
+
+    /**
+     * The property to use for the heat map colors, one of the SUBTEXT_ constants
+     */
+    public final int heatProperty;
+
+    /**
+     * The scale to use for the heat map colors, one of the HEAT_ constants
+     */
+    public final int heatScale;
+
+    /**
+     * Whether to show the controls on the Periodic Table
+     */
+    public final boolean showControls;
+
+    /**
+     * @param prefs The SharedPreferences to read
+     */
+    Settings(@NonNull SharedPreferences prefs) {
+        darkTheme = prefs.getBoolean(PreferenceUtils.KEY_DARK_THEME, true);
+        tempUnit = indexOf(TEMP_UNITS,
+                prefs.getString(PreferenceUtils.KEY_TEMP_UNITS, PreferenceUtils.TEMP_K));
+        elementColors = indexOf(ELEMENT_COLORS,
+                prefs.getString(PreferenceUtils.KEY_ELEMENT_COLORS, PreferenceUtils.COLOR_CAT));
+        subtextValue = indexOf(SUBTEXT_VALUES, prefs.getString(PreferenceUtils.KEY_SUBTEXT_VALUE,
+                PreferenceUtils.SUBTEXT_WEIGHT));
+        heatProperty = indexOf(SUBTEXT_VALUES, prefs.getString(PreferenceUtils.KEY_HEAT_PROPERTY,
+                PreferenceUtils.SUBTEXT_WEIGHT));
+        heatScale = indexOf(HEAT_SCALES,
+                prefs.getString(PreferenceUtils.KEY_HEAT_SCALE, PreferenceUtils.HEAT_LINEAR));
+        showControls = prefs.getBoolean(PreferenceUtils.KEY_SHOW_CONTROLS, true);
+    }
+
+    /**
+     * Get the index of a preference value within an array of values, defaulting to the first
+     * item.
+     *
+     * @param values The array of values
+     * @param value  The value to find
+     * @return The index of the value
+     */
+    private static int indexOf(@NonNull String[] values, String value) {
+        for(int i = 0; i < values.length; i++) {
+            if(values[i].equals(value)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Determine which values differ from another snapshot.
+     *
+     * @param other The other snapshot
+     * @return The CHANGED_ flags for the values that differ
+     */
+    int getChanges(@NonNull Settings other) {
+        int changes = 0;
+        if(darkTheme != other.darkTheme) {
+            changes |= CHANGED_DARK_THEME;
+        }
+        if(tempUnit != other.tempUnit) {
+            changes |= CHANGED_TEMP_UNIT;
+        }
+        if(elementColors != other.elementColors || (elementColors == COLOR_HEAT
+                && (heatProperty != other.heatProperty || heatScale != other.heatScale))) {
+            changes |= CHANGED_ELEMENT_COLORS;
+        }
+        if(subtextValue != other.subtextValue) {
+            changes |= CHANGED_SUBTEXT_VALUE;
+        }
+        if(showControls != other.showControls) {
+            changes |= CHANGED_SHOW_CONTROLS;
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.Elements;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+
+/**
+ * Utility for formatting the values displayed below the symbol of each element block.
+ *
+ * @author Steve Guidetti
+ */
+public class SubtextUtils {
+    /**
+     * The superscript forms of the digits 0 through 9
+     */
+    private static final String SUPERSCRIPT_DIGITS = "⁰¹²³⁴⁵⁶⁷⁸⁹";
+
+    /**
+     * The Locale used to create the current format and subtext matrix
+     */
+    private static Locale sLocale;
+
+    /**
+     * Format for decimal values
+     */
+    private static DecimalFormat sDecimalFormat;
+
+    /**
+     * The matrix of subtext strings, indexed by subtext value, temperature unit, and element
+     * index, with columns built as they are requested
+     */
+    private static String[][][] sSubtexts;
+
+    /**
+     * Reset the format and subtext matrix if the default Locale has changed.
+     */
+    private static void checkLocale() {
+        final Locale locale = Locale.getDefault();
+        if(!locale.equals(sLocale)) {
+            sLocale = locale;
+            sDecimalFormat = new DecimalFormat();
+            sDecimalFormat.setMaximumFractionDigits(4);
+            sSubtexts = new String[Settings.SUBTEXT_VALUES.length][Settings.TEMP_UNITS.length][];
+        }
+    }
+
+    /**
+     * Get the block subtext for every element from the subtext matrix. Each column is built the
+     * first time it is requested for the current Locale, and values that do not depend on the
+     * temperature unit share a single column. The returned array must not be modified.
+     *
+     * @param subtextValue One of the Settings.SUBTEXT_ values
+     * @param tempUnit     One of the Settings.TEMP_ values
+     * @return The subtext for each element, indexed by atomic number minus one
+     */
+    @NonNull
+    public static synchronized String[] getSubtexts(int subtextValue, int tempUnit) {
+        checkLocale();
+
+        if(subtextValue != Settings.SUBTEXT_MELT && subtextValue != Settings.SUBTEXT_BOIL) {
+            tempUnit = Settings.TEMP_K;
+        }
+
+        String[] subtexts = sSubtexts[subtextValue][tempUnit];
+        if(subtexts == null) {
+            final Element[] elements = Elements.getElements();
+            subtexts = new String[elements.length];
+            for(int i = 0; i < elements.length; i++) {
+                subtexts[i] = getSubtext(elements[i], subtextValue, tempUnit);
+            }
+            sSubtexts[subtextValue][tempUnit] = subtexts;
+        }
+        return subtexts;
+    }
+
+    /**
+     * Get the block subtext for an element.
+     *
+     * @param element      The Element
+     * @param subtextValue One of the Settings.SUBTEXT_ values
+     * @param tempUnit     One of the Settings.TEMP_ values
+     * @return The subtext for the element
+     */
+    @NonNull
+    public static synchronized String getSubtext(@NonNull Element element, int subtextValue,
+                                                 int tempUnit) {
+        checkLocale();
+        switch(subtextValue) {
+            case Settings.SUBTEXT_WEIGHT:
+                if(element.isUnstable()) {
+                    return "[" + (int)element.getWeight() + "]";
+                } else {
+                    return sDecimalFormat.format(element.getWeight());
+                }
+            case Settings.SUBTEXT_MELT:
+            case Settings.SUBTEXT_BOIL:
+                double value;
+                if(subtextValue == Settings.SUBTEXT_MELT) {
+                    value = element.getMelt();
+                } else {
+                    value = element.getBoil();
+                }
+                if(!Double.isNaN(value)) {
+                    switch(tempUnit) {
+                        case Settings.TEMP_C:
+                            value = UnitUtils.KtoC(value);
+                            break;
+                        case Settings.TEMP_F:
+                            value = UnitUtils.KtoF(value);
+                            break;
+                    }
+                    return sDecimalFormat.format(value);
+                }
+                break;
+            case Settings.SUBTEXT_DENSITY:
+                if(!Double.isNaN(element.getDensity())) {
+                    if(element.getDensity() < 0.0001) {
+                        return "<0.0001";
+                    }
+                    return sDecimalFormat.format(element.getDensity());
+                }
+                break;
+            case Settings.SUBTEXT_ABUNDANCE:
+                if(!Double.isNaN(element.getAbundance())) {
+                    if(element.getAbundance() < 0.001) {
+                        return "<0.001";
+                    }
+                    return sDecimalFormat.format(element.getAbundance());
+                }
+                break;
+            case Settings.SUBTEXT_HEAT:
+                if(!Double.isNaN(element.getHeat())) {
+                    return String.valueOf(element.getHeat());
+                }
+                break;
+            case Settings.SUBTEXT_NEGATIVITY:
+                if(!Double.isNaN(element.getNegativity())) {
+                    return String.valueOf(element.getNegativity());
+                }
+                break;
+        }
+        return "?";
+    }
+
+    /**
+     * Get the block subtext for an element with the unit of the value appended, for blocks that
+     * are large enough to show more than one value.
+     *
+     * @param element      The Element
+     * @param subtextValue One of the Settings.SUBTEXT_ values
+     * @param tempUnit     One of the Settings.TEMP_ values
+     * @return The subtext for the element with its unit
+     */
+    @NonNull
+    public static String getSubtextWithUnit(@NonNull Element element, int subtextValue,
+                                            int tempUnit) {
+        final String subtext = getSubtext(element, subtextValue, tempUnit);
+        if("?".equals(subtext)) {
+            return subtext;
+        }
+        switch(subtextValue) {
+            case Settings.SUBTEXT_WEIGHT:
+                return subtext + " u";
+            case Settings.SUBTEXT_DENSITY:
+                return subtext + " g/cm³";
+            case Settings.SUBTEXT_MELT:
+            case Settings.SUBTEXT_BOIL:
+                switch(tempUnit) {
+                    case Settings.TEMP_C:
+                        return subtext + " ℃";
+                    case Settings.TEMP_F:
+                        return subtext + " ℉";
+                    default:
+                        return subtext + " K";
+                }
+            case Settings.SUBTEXT_HEAT:
+                return subtext + " J/g·K";
+            case Settings.SUBTEXT_NEGATIVITY:
+                return "χ " + subtext;
+            case Settings.SUBTEXT_ABUNDANCE:
+                return subtext + " mg/kg";
+        }
+        return subtext;
+    }
+
+    /**
+     * Get the electron configuration of an element as plain text, using superscript digits for
+     * the electron counts.
+     *
+     * @param element The Element
+     * @return The electron configuration
+     */
+    @NonNull
+    public static String getConfiguration(@NonNull Element element) {
+        final StringBuilder builder = new StringBuilder();
+        final Element.Configuration configuration = element.getConfiguration();
+        if(configuration.baseElement != null) {
+            builder.append('[').append(configuration.baseElement).append(']');
+        }
+        for(Element.Orbital orbital : configuration.orbitals) {
+            if(builder.length() > 0) {
+                builder.append(' ');
+            }
+            builder.append(orbital.shell).append(orbital.orbital);
+            final String electrons = String.valueOf(orbital.electrons);
+            for(int i = 0; i < electrons.length(); i++) {
+                builder.append(SUPERSCRIPT_DIGITS.charAt(electrons.charAt(i) - '0'));
+            }
+        }
+        return builder.toString();
+    }
+}
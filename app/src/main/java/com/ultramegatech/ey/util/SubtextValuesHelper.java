@@ -23,11 +23,9 @@
 package com.ultramegatech.ey.util;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import androidx.preference.PreferenceManager;
 
 import com.ultramegatech.ey.R;
 
@@ -38,7 +36,7 @@ import java.util.Arrays;
  *
  * @author Steve Guidetti
  */
-public class SubtextValuesHelper implements SharedPreferences.OnSharedPreferenceChangeListener {
+public class SubtextValuesHelper implements PreferenceUtils.OnSettingsChangedListener {
     /**
      * The interface for listeners for changes to the value list.
      */
@@ -65,17 +63,26 @@ public class SubtextValuesHelper implements SharedPreferences.OnSharedPreference
 
     /**
      * @param context  The Context
-     * @param listener The listener for changes to the list of values
+     * @param listener The listener for changes to the list of values, or null if the list does
+     *                 not need to follow changes to the settings
      */
     public SubtextValuesHelper(@NonNull Context context,
                                @Nullable OnSubtextValuesChangedListener listener) {
         mList = context.getResources().getStringArray(R.array.subtextValueNames);
+        updateTempUnit(PreferenceUtils.getSettings().tempUnit);
 
-        final SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(context);
-        prefs.registerOnSharedPreferenceChangeListener(this);
-
-        updateTempUnit();
         mListener = listener;
+        if(listener != null) {
+            PreferenceUtils.registerOnSettingsChangedListener(this);
+        }
+    }
+
+    /**
+     * Stop following changes to the settings. Must be called when the helper is no longer used
+     * if it was created with a listener.
+     */
+    public void destroy() {
+        PreferenceUtils.unregisterOnSettingsChangedListener(this);
     }
 
     /**
@@ -104,14 +111,16 @@ public class SubtextValuesHelper implements SharedPreferences.OnSharedPreference
 
     /**
      * Update the unit for temperatures.
+     *
+     * @param tempUnit The temperature unit, one of the Settings.TEMP_* constants
      */
-    private void updateTempUnit() {
+    private void updateTempUnit(int tempUnit) {
         final String unit;
-        switch(PreferenceUtils.getPrefTempUnit()) {
-            case PreferenceUtils.TEMP_C:
+        switch(tempUnit) {
+            case Settings.TEMP_C:
                 unit = "℃";
                 break;
-            case PreferenceUtils.TEMP_F:
+            case Settings.TEMP_F:
                 unit = "℉";
                 break;
             default:
@@ -122,9 +131,9 @@ public class SubtextValuesHelper implements SharedPreferences.OnSharedPreference
     }
 
     @Override
-    public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
-        if(PreferenceUtils.KEY_TEMP_UNITS.equals(key)) {
-            updateTempUnit();
+    public void onSettingsChanged(@NonNull Settings settings, int changes) {
+        if((changes & Settings.CHANGED_TEMP_UNIT) != 0) {
+            updateTempUnit(settings.tempUnit);
             if(mListener != null) {
                 mListener.onSubtextValuesChanged(this);
             }
@@ -22,8 +22,6 @@
  */
 package com.ultramegatech.ey.util;
 
-import androidx.annotation.NonNull;
-
 /**
  * Utility to convert values between different units.
  *
@@ -36,8 +34,7 @@ public class UnitUtils {
      * @param k Value in Kelvin
      * @return Value in degrees Celsius
      */
-    @NonNull
-    public static Double KtoC(@NonNull Double k) {
+    public static double KtoC(double k) {
         return k - 273.15;
     }
 
@@ -47,8 +44,7 @@ public class UnitUtils {
      * @param k Value in Kelvin
      * @return Value in degrees Fahrenheit
      */
-    @NonNull
-    public static Double KtoF(@NonNull Double k) {
+    public static double KtoF(double k) {
         return k * 9.0 / 5 - 459.67;
     }
 }
@@ -85,18 +85,10 @@ public class BlockSubtextValueListAdapter extends BaseAdapter
     }
 
     /**
-     * Get the index of an item based on its key.
-     *
-     * @param key The key
-     * @return The item index
+     * Stop following changes to the settings. Must be called when the adapter is no longer used.
      */
-    public int getItemIndex(@NonNull String key) {
-        for(int i = 0; i < mKeys.length; i++) {
-            if(mKeys[i].equals(key)) {
-                return i;
-            }
-        }
-        return -1;
+    public void destroy() {
+        mHelper.destroy();
     }
 
     @Override
@@ -23,47 +23,138 @@
 package com.ultramegatech.ey.widget;
 
 import android.content.Context;
-import android.text.TextUtils;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 import android.widget.Filter;
 import android.widget.Filterable;
-import android.widget.ListAdapter;
-import android.widget.ListView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.ElementTable;
 import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.util.ElementSearchIndex;
 import com.ultramegatech.ey.util.ElementUtils;
+import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.widget.ElementListItems.ElementHolder;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This custom ListAdapter is for displaying a list of elements.
+ * This custom RecyclerView Adapter is for displaying a list of elements. Changes to the filtered
+ * and sorted list are diffed on a background thread and dispatched as item level updates.
  *
  * @author Steve Guidetti
  */
-public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filterable {
+public class ElementListAdapter extends RecyclerView.Adapter<ElementListAdapter.ViewHolder>
+        implements Filterable {
     /**
      * Sorting options
      */
     public static final int SORT_NUMBER = 0;
     @SuppressWarnings("unused")
     public static final int SORT_NAME = 1;
+    @SuppressWarnings("unused")
+    public static final int SORT_WEIGHT = 2;
+    @SuppressWarnings("unused")
+    public static final int SORT_DENSITY = 3;
+    @SuppressWarnings("unused")
+    public static final int SORT_MELT = 4;
+    @SuppressWarnings("unused")
+    public static final int SORT_BOIL = 5;
+    @SuppressWarnings("unused")
+    public static final int SORT_HEAT = 6;
+    @SuppressWarnings("unused")
+    public static final int SORT_NEGATIVITY = 7;
+    @SuppressWarnings("unused")
+    public static final int SORT_ABUNDANCE = 8;
+
+    /**
+     * The first sort field based on a numeric property, followed by the rest in the order of the
+     * ElementTable.PROP_ constants
+     */
+    private static final int SORT_FIRST_PROPERTY = SORT_WEIGHT;
+
+    /**
+     * Delay in milliseconds after the last filter request before filtering starts
+     */
+    private static final long FILTER_DELAY = 150;
+
+    /**
+     * Payloads for partial item updates
+     */
+    private static final Object PAYLOAD_COLOR = new Object();
+    private static final Object PAYLOAD_ACTIVATED = new Object();
 
     /**
-     * The Context
+     * Callback for calculating the difference between two lists of items. The items in every list
+     * are shared instances from the original data set, so items with the same identity also have
+     * the same contents.
+     */
+    private static final DiffUtil.ItemCallback<ElementHolder> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<ElementHolder>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull ElementHolder oldItem,
+                                               @NonNull ElementHolder newItem) {
+                    return oldItem.element.number == newItem.element.number;
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull ElementHolder oldItem,
+                                                  @NonNull ElementHolder newItem) {
+                    return oldItem == newItem;
+                }
+            };
+
+    /**
+     * Interface for listeners for clicks on list items.
+     */
+    public interface OnItemClickListener {
+        /**
+         * Called when a list item is clicked.
+         *
+         * @param number The atomic number of the element
+         */
+        void onItemClick(int number);
+    }
+
+    /**
+     * Interface for listeners for the results of the text filter.
+     */
+    public interface OnFilterResultsListener {
+        /**
+         * Called on the UI thread when the results of a text filter are published.
+         *
+         * @param matches The set of elements matching the filter text, before any restriction
+         */
+        void onFilterResults(@NonNull ElementSet matches);
+    }
+
+    /**
+     * The LayoutInflater for creating item Views
      */
     @NonNull
-    private final Context mContext;
+    private final LayoutInflater mInflater;
+
+    /**
+     * The differ that calculates and dispatches updates to the displayed list
+     */
+    @NonNull
+    private final AsyncListDiffer<ElementHolder> mDiffer =
+            new AsyncListDiffer<>(this, DIFF_CALLBACK);
 
     /**
      * The filter for this ListAdapter
@@ -78,96 +169,249 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
     private final ElementHolder[] mListItems;
 
     /**
-     * The filtered and sorted data set
+     * The index used to search the data set
+     */
+    @NonNull
+    private final ElementSearchIndex mSearchIndex;
+
+    /**
+     * The set of elements in the most recently submitted data set. This is only accessed on the
+     * UI thread and is replaced rather than modified.
+     */
+    @NonNull
+    private ElementSet mMatches = new ElementSet();
+
+    /**
+     * The cached ascending order of the original data set for each sort field, indexed by the
+     * SORT_ constants. Each array contains the indices of the items in sorted order.
      */
     @NonNull
-    private final ArrayList<ElementHolder> mFiltered = new ArrayList<>();
+    private final int[][] mSortOrders;
+
+    /**
+     * The number of items with a known value for each sort field. These are the items at the
+     * start of the sort order, and they are the only ones reversed in descending order.
+     */
+    @NonNull
+    private final int[] mKnownCounts;
 
     /**
      * The current field used for sorting
      */
-    private int mSort = SORT_NUMBER;
+    private volatile int mSort = SORT_NUMBER;
 
     /**
      * The current sorting direction
      */
-    private boolean mSortReverse = false;
+    private volatile boolean mSortReverse = false;
+
+    /**
+     * Counter incremented for each filter request, used to cancel outdated filter operations
+     */
+    @NonNull
+    private final AtomicInteger mFilterGeneration = new AtomicInteger();
+
+    /**
+     * Handler for delaying filter requests
+     */
+    @NonNull
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The text for the pending delayed filter request
+     */
+    @Nullable
+    private CharSequence mPendingFilter;
+
+    /**
+     * The text of the most recent filter request
+     */
+    @Nullable
+    private CharSequence mFilterText;
+
+    /**
+     * The set of elements the list is restricted to, or null for no restriction
+     */
+    @Nullable
+    private volatile ElementSet mRestriction;
+
+    /**
+     * Callback to start the pending delayed filter request
+     */
+    @NonNull
+    private final Runnable mFilterCallback = new Runnable() {
+        @Override
+        public void run() {
+            mFilter.filter(mPendingFilter);
+        }
+    };
+
+    /**
+     * The listener for clicks on list items
+     */
+    @Nullable
+    private OnItemClickListener mClickListener;
+
+    /**
+     * The listener for the results of the text filter
+     */
+    @Nullable
+    private OnFilterResultsListener mFilterResultsListener;
+
+    /**
+     * The atomic number of the activated element, or -1 for none
+     */
+    private long mActivatedItem = -1;
 
     /**
      * @param context The Context
      */
     public ElementListAdapter(@NonNull Context context) {
-        mContext = context;
+        setHasStableIds(true);
+        mInflater = LayoutInflater.from(context);
+        mSearchIndex = ElementSearchIndex.getInstance(context);
 
         final Element[] elements = Elements.getElements();
         mListItems = new ElementHolder[elements.length];
+        final String[] names = new String[elements.length];
+        final int[] numberOrder = new int[elements.length];
+        final int[] colors = ElementUtils.getElementColors(PreferenceUtils.getSettings());
         Element element;
         for(int i = 0; i < elements.length; i++) {
             element = elements[i];
-            mListItems[i] = new ElementHolder(context, element);
+            names[i] = context.getString(ElementUtils.getElementName(element.number));
+            mListItems[i] = new ElementHolder(element, names[i]);
+            mListItems[i].color = colors[i];
+            numberOrder[i] = i;
+        }
+        final ElementTable table = Elements.getTable();
+        mSortOrders = new int[SORT_FIRST_PROPERTY + ElementTable.NUM_PROPS][];
+        mKnownCounts = new int[mSortOrders.length];
+        mSortOrders[SORT_NUMBER] = numberOrder;
+        mSortOrders[SORT_NAME] = ElementListItems.getNameOrder(names, Collator.getInstance());
+        for(int i = 0; i < ElementTable.NUM_PROPS; i++) {
+            mSortOrders[SORT_FIRST_PROPERTY + i] = table.getSortOrder(i);
+            mKnownCounts[SORT_FIRST_PROPERTY + i] = table.getKnownCount(i);
         }
+        mKnownCounts[SORT_NUMBER] = elements.length;
+        mKnownCounts[SORT_NAME] = elements.length;
+
+        mMatches.addRange(mListItems.length);
+        submitList(mListItems.clone());
 
         mFilter = new Filter() {
             @Override
             protected Filter.FilterResults performFiltering(CharSequence cs) {
-                filterList(cs);
-                sortList(mSort, mSortReverse);
-                return null;
+                final int generation = mFilterGeneration.get();
+                final ElementSet matches = new ElementSet();
+                ElementListItems.filterList(mSearchIndex, mListItems.length, cs, matches);
+                final ElementSet textMatches = new ElementSet(matches);
+                final ElementSet restriction = mRestriction;
+                if(restriction != null) {
+                    matches.and(restriction);
+                }
+                if(generation != mFilterGeneration.get()) {
+                    return null;
+                }
+
+                final int sort = mSort;
+                final boolean reverse = mSortReverse;
+                final ElementHolder[] items = ElementListItems.sortList(mListItems,
+                        mSortOrders[sort], mKnownCounts[sort], reverse, matches);
+                if(generation != mFilterGeneration.get()) {
+                    return null;
+                }
+
+                final Filter.FilterResults fr = new Filter.FilterResults();
+                fr.values = new FilterSnapshot(textMatches, matches, items, sort, reverse);
+                fr.count = items.length;
+                return fr;
             }
 
             @Override
             protected void publishResults(CharSequence cs, Filter.FilterResults fr) {
-                notifyDataSetChanged();
+                if(fr == null || !(fr.values instanceof FilterSnapshot)) {
+                    return;
+                }
+
+                final FilterSnapshot snapshot = (FilterSnapshot)fr.values;
+                mMatches = snapshot.matches;
+                if(snapshot.sort != mSort || snapshot.reverse != mSortReverse) {
+                    submitList(ElementListItems.sortList(mListItems, mSortOrders[mSort],
+                            mKnownCounts[mSort], mSortReverse, mMatches));
+                } else {
+                    submitList(snapshot.items);
+                }
+
+                if(mFilterResultsListener != null) {
+                    mFilterResultsListener.onFilterResults(snapshot.textMatches);
+                }
             }
         };
     }
 
     @Override
-    public void notifyDataSetInvalidated() {
-        super.notifyDataSetInvalidated();
-        for(ElementHolder holder : mListItems) {
-            holder.color = ElementUtils.getElementColor(holder.element);
-        }
-    }
-
-    @Override
-    public int getCount() {
-        return mFiltered.size();
+    public int getItemCount() {
+        return mDiffer.getCurrentList().size();
     }
 
-    @Override
+    /**
+     * Get the item at the specified position in the displayed list.
+     *
+     * @param position The position of the item
+     * @return The item
+     */
+    @NonNull
     public ElementHolder getItem(int position) {
-        return mFiltered.get(position);
+        return mDiffer.getCurrentList().get(position);
     }
 
     @Override
     public long getItemId(int position) {
-        return mFiltered.get(position).element.number;
+        return getItem(position).element.number;
     }
 
+    @NonNull
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        if(convertView == null) {
-            convertView = LayoutInflater.from(mContext)
-                    .inflate(R.layout.element_list_item, parent, false);
-            final ViewHolder holder = new ViewHolder();
-            holder.block = convertView.findViewById(R.id.block);
-            holder.number = convertView.findViewById(R.id.number);
-            holder.symbol = convertView.findViewById(R.id.symbol);
-            holder.name = convertView.findViewById(R.id.name);
-            convertView.setTag(holder);
-        }
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        final ViewHolder holder =
+                new ViewHolder(mInflater.inflate(R.layout.element_list_item, parent, false));
+        holder.itemView.setOnClickListener(v -> {
+            final int position = holder.getAdapterPosition();
+            if(position != RecyclerView.NO_POSITION && mClickListener != null) {
+                mClickListener.onItemClick(getItem(position).element.number);
+            }
+        });
+        return holder;
+    }
 
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
         final ElementHolder item = getItem(position);
-        final ViewHolder holder = (ViewHolder)convertView.getTag();
-
-        holder.number.setText(String.valueOf(item.element.number));
+        holder.number.setText(item.numberText);
         holder.symbol.setText(item.element.symbol);
-        holder.symbol.setContentDescription(item.element.symbol.toUpperCase());
+        holder.symbol.setContentDescription(item.symbolDescription);
         holder.name.setText(item.name);
         holder.block.setBackgroundColor(item.color);
+        holder.itemView.setActivated(item.element.number == mActivatedItem);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position,
+                                 @NonNull List<Object> payloads) {
+        if(payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
 
-        return convertView;
+        final ElementHolder item = getItem(position);
+        for(Object payload : payloads) {
+            if(payload == PAYLOAD_COLOR) {
+                holder.block.setBackgroundColor(item.color);
+            } else if(payload == PAYLOAD_ACTIVATED) {
+                holder.itemView.setActivated(item.element.number == mActivatedItem);
+            }
+        }
     }
 
     @NonNull
@@ -177,148 +421,208 @@ public class ElementListAdapter extends BaseAdapter implements ListAdapter, Filt
     }
 
     /**
-     * Get the position of the element with the specified ID.
+     * Set the listener for clicks on list items.
      *
-     * @param id The ID of the element
-     * @return The position of the element in the list
+     * @param listener The listener
      */
-    public int getItemPosition(long id) {
-        for(int i = 0; i < mFiltered.size(); i++) {
-            if(getItem(i).element.number == id) {
-                return i;
-            }
-        }
-        return ListView.INVALID_POSITION;
+    public void setOnItemClickListener(@Nullable OnItemClickListener listener) {
+        mClickListener = listener;
     }
 
     /**
-     * Set the field used to sort elements.
+     * Set the listener for the results of the text filter.
      *
-     * @param sortBy  One of the SORT_ constants
-     * @param reverse Whether to sort items in reverse order
+     * @param listener The listener
      */
-    public void setSort(int sortBy, boolean reverse) {
-        sortList(sortBy, reverse);
-        notifyDataSetChanged();
+    public void setOnFilterResultsListener(@Nullable OnFilterResultsListener listener) {
+        mFilterResultsListener = listener;
     }
 
     /**
-     * Filter the original data set.
+     * Set the activated item.
      *
-     * @param filter Text used to filter the elements
+     * @param id The atomic number of the element to activate, or -1 for none
      */
-    private void filterList(@Nullable CharSequence filter) {
-        mFiltered.clear();
-
-        if(TextUtils.isEmpty(filter)) {
-            Collections.addAll(mFiltered, mListItems);
+    public void setActivatedItem(long id) {
+        if(id == mActivatedItem) {
             return;
         }
 
-        for(ElementHolder element : mListItems) {
-            if(element.element.symbol.toLowerCase().startsWith(filter.toString().toLowerCase())
-                    || element.name.toLowerCase().startsWith(filter.toString().toLowerCase())) {
-                mFiltered.add(element);
+        final long oldItem = mActivatedItem;
+        mActivatedItem = id;
+        notifyItemActivatedChanged(oldItem);
+        notifyItemActivatedChanged(id);
+    }
+
+    /**
+     * Notify observers that the activated state of an item has changed.
+     *
+     * @param id The atomic number of the element
+     */
+    private void notifyItemActivatedChanged(long id) {
+        final List<ElementHolder> items = mDiffer.getCurrentList();
+        for(int i = 0; i < items.size(); i++) {
+            if(items.get(i).element.number == id) {
+                notifyItemChanged(i, PAYLOAD_ACTIVATED);
+                return;
             }
         }
     }
 
     /**
-     * Sort the filtered list.
+     * Reload the element colors from the preferences and update the displayed items.
+     */
+    public void refreshColors() {
+        final int[] colors = ElementUtils.getElementColors(PreferenceUtils.getSettings());
+        for(ElementHolder holder : mListItems) {
+            holder.color = colors[holder.element.number - 1];
+        }
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_COLOR);
+    }
+
+    /**
+     * Set the field used to sort elements.
      *
      * @param sortBy  One of the SORT_ constants
      * @param reverse Whether to sort items in reverse order
      */
-    private synchronized void sortList(int sortBy, boolean reverse) {
+    public void setSort(int sortBy, boolean reverse) {
         mSort = sortBy;
         mSortReverse = reverse;
+        submitList(ElementListItems.sortList(mListItems, mSortOrders[sortBy],
+                mKnownCounts[sortBy], reverse, mMatches));
+    }
 
-        Collections.sort(mFiltered, new ElementComparator(sortBy));
-        if(reverse) {
-            Collections.reverse(mFiltered);
-        }
+    /**
+     * Submit a new filtered and sorted data set to be diffed against the displayed list.
+     *
+     * @param items The new data set, which must not be modified afterwards
+     */
+    private void submitList(@NonNull ElementHolder[] items) {
+        mDiffer.submitList(Arrays.asList(items));
     }
 
     /**
-     * Class to hold data for a single element.
+     * Filter the list after a short delay. Each request replaces any pending request and cancels
+     * any filter operation in progress, so only the last of a series of rapid requests is
+     * performed.
+     *
+     * @param filter Text used to filter the elements
      */
-    private static class ElementHolder {
-        /**
-         * The Element
-         */
-        @NonNull
-        final Element element;
+    public void filter(@Nullable CharSequence filter) {
+        mHandler.removeCallbacks(mFilterCallback);
+        mFilterGeneration.incrementAndGet();
+        mPendingFilter = filter;
+        mFilterText = filter;
+        mHandler.postDelayed(mFilterCallback, FILTER_DELAY);
+    }
 
+    /**
+     * Filter the list immediately, cancelling any pending request or filter operation in
+     * progress.
+     *
+     * @param filter Text used to filter the elements
+     */
+    public void filterNow(@Nullable CharSequence filter) {
+        mHandler.removeCallbacks(mFilterCallback);
+        mFilterGeneration.incrementAndGet();
+        mFilterText = filter;
+        mFilter.filter(filter);
+    }
+
+    /**
+     * Restrict the list to a set of elements, such as the result of an ElementQuery. The
+     * restriction is combined with the filter text and the list is filtered again immediately.
+     *
+     * @param set The set of elements to show, or null to show all elements
+     */
+    public void setRestriction(@Nullable ElementSet set) {
+        mRestriction = set == null ? null : new ElementSet(set);
+        filterNow(mFilterText);
+    }
+
+    /**
+     * The results of a filter operation.
+     */
+    private static class FilterSnapshot {
         /**
-         * The element name
+         * The set of elements matching the filter text
          */
         @NonNull
-        final String name;
+        final ElementSet textMatches;
 
         /**
-         * The block color
+         * The set of matching elements
          */
-        int color;
+        @NonNull
+        final ElementSet matches;
 
         /**
-         * @param context The Context
-         * @param element The Element
+         * The filtered and sorted items
          */
-        ElementHolder(@NonNull Context context, @NonNull Element element) {
-            this.element = element;
-            this.name = context.getString(ElementUtils.getElementName(element.number));
-            this.color = ElementUtils.getElementColor(element);
-        }
-    }
+        @NonNull
+        final ElementHolder[] items;
 
-    /**
-     * Comparator used for sorting elements.
-     */
-    private static class ElementComparator implements Comparator<ElementHolder> {
         /**
-         * The field to sort by
+         * The sorting parameters used to sort the items
          */
-        private final int mSortField;
+        final int sort;
+        final boolean reverse;
 
         /**
-         * @param sortField One of the SORT_ constants
+         * @param textMatches The set of elements matching the filter text
+         * @param matches     The set of matching elements
+         * @param items       The filtered and sorted items
+         * @param sort        The field used to sort the items
+         * @param reverse     Whether the items are in reverse order
          */
-        ElementComparator(int sortField) {
-            mSortField = sortField;
-        }
-
-        @Override
-        public int compare(ElementHolder l, ElementHolder r) {
-            if(mSortField == SORT_NUMBER) {
-                return l.element.number - r.element.number;
-            }
-
-            return l.name.compareTo(r.name);
+        FilterSnapshot(@NonNull ElementSet textMatches, @NonNull ElementSet matches,
+                       @NonNull ElementHolder[] items, int sort, boolean reverse) {
+            this.textMatches = textMatches;
+            this.matches = matches;
+            this.items = items;
+            this.sort = sort;
+            this.reverse = reverse;
         }
     }
 
     /**
-     * Caches references to Views within a layout.
+     * Caches references to Views within a list item layout.
      */
-    private static class ViewHolder {
+    static class ViewHolder extends RecyclerView.ViewHolder {
         /**
          * The element block container
          */
-        View block;
+        @NonNull
+        final View block;
 
         /**
          * The element number
          */
-        TextView number;
+        @NonNull
+        final TextView number;
 
         /**
          * The element symbol
          */
-        TextView symbol;
+        @NonNull
+        final TextView symbol;
 
         /**
          * The element name
          */
-        TextView name;
+        @NonNull
+        final TextView name;
+
+        /**
+         * @param itemView The list item View
+         */
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            block = itemView.findViewById(R.id.block);
+            number = itemView.findViewById(R.id.number);
+            symbol = itemView.findViewById(R.id.symbol);
+            name = itemView.findViewById(R.id.name);
+        }
     }
 }
@@ -0,0 +1,173 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.util.ElementSearchIndex;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
+
+/**
+ * The data set behind the element list and the operations for filtering and sorting it. This
+ * class does not depend on the Android framework or the support libraries, so it can be measured
+ * by the JVM benchmarks.
+ *
+ * @author Steve Guidetti
+ */
+final class ElementListItems {
+    private ElementListItems() {
+    }
+
+    /**
+     * Find the elements matching a filter.
+     *
+     * @param index   The index used to search the data set
+     * @param count   The number of elements in the data set
+     * @param filter  Text used to filter the elements
+     * @param matches The set to fill with the matching elements
+     */
+    static void filterList(@NonNull ElementSearchIndex index, int count,
+                           @Nullable CharSequence filter, @NonNull ElementSet matches) {
+        if(filter == null || filter.length() == 0) {
+            matches.clear();
+            matches.addRange(count);
+            return;
+        }
+
+        index.search(filter, matches);
+    }
+
+    /**
+     * Select the matching items from a data set in sorted order. This is a single pass over the
+     * cached sort order, so the cost is linear regardless of the direction. In descending order,
+     * only the items with known values are reversed and the rest remain at the end.
+     *
+     * @param items   The original data set, indexed by atomic number minus one
+     * @param order   The indices of the items in ascending order
+     * @param known   The number of items at the start of the order with known values
+     * @param reverse Whether to return the items in descending order
+     * @param matches The set of items to include
+     * @return The matching items in sorted order
+     */
+    @NonNull
+    static ElementHolder[] sortList(@NonNull ElementHolder[] items, @NonNull int[] order,
+                                    int known, boolean reverse, @NonNull ElementSet matches) {
+        final ElementHolder[] sorted = new ElementHolder[matches.size()];
+        int n = 0;
+        if(reverse) {
+            for(int i = known - 1; i >= 0; i--) {
+                if(matches.contains(order[i])) {
+                    sorted[n++] = items[order[i]];
+                }
+            }
+        } else {
+            for(int i = 0; i < known; i++) {
+                if(matches.contains(order[i])) {
+                    sorted[n++] = items[order[i]];
+                }
+            }
+        }
+        for(int i = known; i < order.length; i++) {
+            if(matches.contains(order[i])) {
+                sorted[n++] = items[order[i]];
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Get the order of a list of names according to the rules of a locale. Names that are equal
+     * according to the Collator retain their original order.
+     *
+     * @param names    The names
+     * @param collator The Collator for the locale
+     * @return The indices of the names in ascending order
+     */
+    @NonNull
+    static int[] getNameOrder(@NonNull String[] names, @NonNull Collator collator) {
+        final CollationKey[] keys = new CollationKey[names.length];
+        final Integer[] order = new Integer[names.length];
+        for(int i = 0; i < names.length; i++) {
+            keys[i] = collator.getCollationKey(names[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (l, r) -> keys[l].compareTo(keys[r]));
+
+        final int[] result = new int[names.length];
+        for(int i = 0; i < names.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    /**
+     * Class to hold data for a single element.
+     */
+    static class ElementHolder {
+        /**
+         * The Element
+         */
+        @NonNull
+        final Element element;
+
+        /**
+         * The element name
+         */
+        @NonNull
+        final String name;
+
+        /**
+         * The atomic number as text
+         */
+        @NonNull
+        final String numberText;
+
+        /**
+         * The content description for the symbol
+         */
+        @NonNull
+        final String symbolDescription;
+
+        /**
+         * The block color
+         */
+        int color;
+
+        /**
+         * @param element The Element
+         * @param name    The element name
+         */
+        ElementHolder(@NonNull Element element, @NonNull String name) {
+            this.element = element;
+            this.name = name;
+            numberText = String.valueOf(element.number);
+            symbolDescription = element.symbol.toUpperCase();
+        }
+    }
+}
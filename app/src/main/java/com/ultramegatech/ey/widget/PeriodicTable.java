@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.provider.ElementSet;
+
+import java.util.List;
+
+/**
+ * The operations of a View that displays the Periodic Table of the Elements. Implemented by the
+ * default PeriodicTableView and by the PeriodicTableSurfaceView, which renders on a dedicated
+ * thread.
+ *
+ * @author Steve Guidetti
+ */
+public interface PeriodicTable {
+    /**
+     * Set the PeriodicTableListener.
+     *
+     * @param listener The PeriodicTableListener
+     */
+    void setPeriodicTableListener(@Nullable PeriodicTableView.PeriodicTableListener listener);
+
+    /**
+     * Set the list of blocks to be rendered.
+     *
+     * @param blocks The list of blocks
+     */
+    void setBlocks(@NonNull List<PeriodicTableBlock> blocks);
+
+    /**
+     * Replace the subtext of every block without changing the layout.
+     *
+     * @param subtexts The subtext for each element, indexed by atomic number minus one
+     */
+    void setSubtexts(@NonNull String[] subtexts);
+
+    /**
+     * Replace the background color of every block without changing the layout.
+     *
+     * @param colors The color for each element, indexed by atomic number minus one
+     */
+    void setBlockColors(@NonNull int[] colors);
+
+    /**
+     * Highlight a set of elements by dimming all the other blocks.
+     *
+     * @param highlight The set of elements to highlight, or null to show all blocks normally
+     */
+    void setHighlight(@Nullable ElementSet highlight);
+
+    /**
+     * Reload the color legend after the color scheme or its settings have changed.
+     */
+    void invalidateLegend();
+
+    /**
+     * Check whether the table can be zoomed in.
+     *
+     * @return Whether the table can be zoomed in
+     */
+    boolean canZoomIn();
+
+    /**
+     * Check whether the table can be zoomed out.
+     *
+     * @return Whether the table can be zoomed out
+     */
+    boolean canZoomOut();
+
+    /**
+     * Zoom in one step.
+     */
+    void zoomIn();
+
+    /**
+     * Zoom out one step.
+     */
+    void zoomOut();
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+/**
+ * The backgrounds of the blocks of a PeriodicTableView grouped by color. Each distinct color is
+ * drawn as a single Path containing the rectangles of every block with that color, so the
+ * background layer takes one draw call per color instead of one per block. Dimmed blocks are
+ * added with their dimmed colors and batched like any other color. The paths are built in
+ * content coordinates for a specific block size and are rebuilt when the block size or the block
+ * colors change.
+ *
+ * @author Steve Guidetti
+ */
+class PeriodicTableBatches {
+    /**
+     * The Path for each color, reused between builds
+     */
+    @NonNull
+    private final ArrayList<Path> mPaths = new ArrayList<>();
+
+    /**
+     * The color of each Path
+     */
+    @NonNull
+    private int[] mColors = new int[16];
+
+    /**
+     * The number of Paths in use
+     */
+    private int mCount;
+
+    /**
+     * The block size the Paths were built for, or -1 if the Paths need to be built
+     */
+    private int mBlockSize = -1;
+
+    /**
+     * Mark the Paths as needing to be rebuilt.
+     */
+    void invalidate() {
+        mBlockSize = -1;
+    }
+
+    /**
+     * Determine whether the Paths are built for a block size.
+     *
+     * @param blockSize The block size
+     * @return Whether the Paths can be drawn at the block size
+     */
+    boolean isValid(int blockSize) {
+        return mBlockSize == blockSize;
+    }
+
+    /**
+     * Clear the Paths to begin building them for a block size.
+     *
+     * @param blockSize The block size
+     */
+    void begin(int blockSize) {
+        for(int i = 0; i < mCount; i++) {
+            mPaths.get(i).rewind();
+        }
+        mCount = 0;
+        mBlockSize = blockSize;
+    }
+
+    /**
+     * Add the background of a block.
+     *
+     * @param rect  The rectangle of the block in content coordinates
+     * @param color The background color of the block
+     */
+    void addBlock(@NonNull Rect rect, int color) {
+        int batch = 0;
+        while(batch < mCount && mColors[batch] != color) {
+            batch++;
+        }
+        if(batch == mCount) {
+            if(mCount == mColors.length) {
+                final int[] colors = new int[mCount * 2];
+                System.arraycopy(mColors, 0, colors, 0, mCount);
+                mColors = colors;
+            }
+            if(mCount == mPaths.size()) {
+                mPaths.add(new Path());
+            }
+            mColors[mCount++] = color;
+        }
+        mPaths.get(batch).addRect(rect.left, rect.top, rect.right, rect.bottom,
+                Path.Direction.CW);
+    }
+
+    /**
+     * Draw the block backgrounds.
+     *
+     * @param canvas     The Canvas, translated so the origin is at the origin of the content
+     * @param blockPaint The Paint for block backgrounds, which will have its color changed
+     * @return The number of draw operations issued
+     */
+    int draw(@NonNull Canvas canvas, @NonNull Paint blockPaint) {
+        for(int i = 0; i < mCount; i++) {
+            blockPaint.setColor(mColors[i]);
+            canvas.drawPath(mPaths.get(i), blockPaint);
+        }
+        return mCount;
+    }
+}
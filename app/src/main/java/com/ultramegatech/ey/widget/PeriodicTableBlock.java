@@ -38,6 +38,12 @@ public class PeriodicTableBlock {
     @NonNull
     public final Element element;
 
+    /**
+     * The atomic number as a string
+     */
+    @NonNull
+    final String number;
+
     /**
      * Text to display below the symbol
      */
@@ -48,6 +54,11 @@ public class PeriodicTableBlock {
      */
     public int color = 0xFFCCCCCC;
 
+    /**
+     * Block background color when the block is dimmed
+     */
+    int dimColor;
+
     /**
      * Grid position
      */
@@ -59,5 +70,6 @@ public class PeriodicTableBlock {
      */
     public PeriodicTableBlock(@NonNull Element element) {
         this.element = element;
+        number = String.valueOf(element.number);
     }
 }
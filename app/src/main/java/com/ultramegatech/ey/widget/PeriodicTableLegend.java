@@ -25,30 +25,79 @@ package com.ultramegatech.ey.widget;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
+import android.graphics.LinearGradient;
 import android.graphics.Paint;
+import android.graphics.Picture;
 import android.graphics.Rect;
+import android.graphics.Shader;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.util.ElementUtils;
+import com.ultramegatech.ey.util.HeatMap;
 import com.ultramegatech.ey.util.PreferenceUtils;
-
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map.Entry;
+import com.ultramegatech.ey.util.Settings;
+import com.ultramegatech.ey.util.SubtextUtils;
+import com.ultramegatech.ey.util.SubtextValuesHelper;
 
 /**
- * Renders a color legend on a PeriodicTableView.
+ * Renders a color legend on a PeriodicTableView. The legend is a grid of labeled boxes for the
+ * category and block color schemes, or a gradient bar with the range of values for heat maps.
+ * The layout is calculated only when the size or the content of the legend changes, and is
+ * recorded into a Picture that is replayed on each draw where supported.
  *
  * @author Steve Guidetti
  */
 class PeriodicTableLegend {
     /**
-     * Map of key values to labels
+     * The number of rows in the legend grid
+     */
+    private static final int ROWS = 4;
+
+    /**
+     * The labels for each legend item
+     */
+    @NonNull
+    private String[] mLabels = new String[0];
+
+    /**
+     * The color values for each legend item
+     */
+    @NonNull
+    private int[] mColors = new int[0];
+
+    /**
+     * Whether the legend is showing a heat map
+     */
+    private boolean mHeatMap;
+
+    /**
+     * The name of the heat map property
+     */
+    @NonNull
+    private String mTitle = "";
+
+    /**
+     * The labels for the low, center, and high ends of the heat map, with null for unused
+     * positions
+     */
+    @NonNull
+    private final String[] mRangeLabels = new String[3];
+
+    /**
+     * The label for the color of unknown values
+     */
+    @NonNull
+    private String mUnknownLabel = "";
+
+    /**
+     * The color lookup table of the heat map
      */
     @NonNull
-    private final HashMap<String, String> mMap = new LinkedHashMap<>();
+    private int[] mLut = new int[0];
 
     /**
      * Paint used to draw backgrounds
@@ -63,10 +112,60 @@ class PeriodicTableLegend {
     private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
 
     /**
-     * Rectangle used to draw backgrounds
+     * Paint used to draw text outside of the legend boxes
+     */
+    @NonNull
+    private final Paint mLabelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /**
+     * Paint used to draw the gradient bar
+     */
+    @NonNull
+    private final Paint mBarPaint = new Paint();
+
+    /**
+     * The dimensions of the boundaries used to calculate the current layout, or -1 if the layout
+     * needs to be calculated
+     */
+    private int mLayoutWidth = -1;
+    private int mLayoutHeight = -1;
+
+    /**
+     * The calculated boxes of the legend items, relative to the top left of the legend. Heat maps
+     * have a single box for unknown values.
+     */
+    @NonNull
+    private Rect[] mBoxes = new Rect[0];
+
+    /**
+     * The calculated positions of the labels of the legend items, relative to the top left of
+     * the legend
+     */
+    @NonNull
+    private float[] mLabelX = new float[0];
+    @NonNull
+    private float[] mLabelY = new float[0];
+
+    /**
+     * The calculated gradient bar of the heat map, relative to the top left of the legend
+     */
+    @NonNull
+    private final Rect mBar = new Rect();
+
+    /**
+     * The calculated positions of the title and range labels of the heat map, relative to the
+     * top left of the legend
      */
+    private float mTitleY;
+    private float mRangeLabelY;
     @NonNull
-    private final Rect mRect = new Rect();
+    private final float[] mRangeLabelX = new float[3];
+
+    /**
+     * The recorded drawing commands for the current layout, or null if they are not recorded
+     */
+    @Nullable
+    private Picture mPicture;
 
     /**
      * @param context The Context
@@ -82,70 +181,248 @@ class PeriodicTableLegend {
      */
     void invalidate(@NonNull Context context) {
         final Resources res = context.getResources();
-        final String[] keys;
-        final String[] nameValues;
-        if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
-            keys = res.getStringArray(R.array.ptBlocks);
-            nameValues = res.getStringArray(R.array.ptBlocks);
+        final Settings settings = PreferenceUtils.getSettings();
+        invalidateLayout();
+
+        mHeatMap = settings.elementColors == Settings.COLOR_HEAT;
+        if(mHeatMap) {
+            loadHeatMap(context, settings);
+            return;
+        }
+
+        if(settings.elementColors == Settings.COLOR_BLOCK) {
+            mLabels = res.getStringArray(R.array.ptBlocks);
         } else {
-            keys = new String[] {"0", "1", "2", "3", "4", "5", "6", "7", "8", "9"};
-            nameValues = res.getStringArray(R.array.ptCategories);
+            mLabels = res.getStringArray(R.array.ptCategories);
         }
+        mColors = ElementUtils.getKeyColors(settings.elementColors);
+    }
+
+    /**
+     * Load the heat map title, range labels, and color lookup table.
+     *
+     * @param context  The Context
+     * @param settings The current Settings
+     */
+    private void loadHeatMap(@NonNull Context context, @NonNull Settings settings) {
+        final String title =
+                new SubtextValuesHelper(context, null).getItem(settings.heatProperty);
+        mTitle = title != null ? title : "";
+        mUnknownLabel = context.getString(R.string.unknown);
+        mLut = HeatMap.getLut(settings.heatScale);
 
-        mMap.clear();
-        for(int i = 0; i < keys.length; i++) {
-            mMap.put(keys[i], nameValues[i]);
+        final int[] range = HeatMap.getRange(settings.heatProperty, settings.heatScale);
+        final String[] subtexts =
+                SubtextUtils.getSubtexts(settings.heatProperty, settings.tempUnit);
+        for(int i = 0; i < range.length; i++) {
+            mRangeLabels[i] = range[i] < 0 ? null : subtexts[range[i]];
         }
     }
 
     /**
-     * Render the legend within the specified rectangle on the specified Canvas. The legend appears
-     * as a grid of colored rectangles in 4 rows and a variable number of columns. Each rectangle
-     * contains text declaring the value represented by the rectangle's color.
+     * Discard the calculated layout so it is recalculated on the next draw.
+     */
+    private void invalidateLayout() {
+        mLayoutWidth = -1;
+        mLayoutHeight = -1;
+        mPicture = null;
+    }
+
+    /**
+     * Set the color of the text outside of the legend boxes.
      *
-     * @param canvas Canvas on which to draw
-     * @param rect   Boundaries within which to draw
+     * @param color The color value
      */
-    void drawLegend(@NonNull Canvas canvas, @NonNull Rect rect) {
-        final int count = mMap.size();
-        final int rows = 4;
-        final int cols = (int)Math.ceil(count / (double)rows);
-        final int boxHeight = (rect.bottom - rect.top) / rows;
+    void setTextColor(int color) {
+        if(color != mLabelPaint.getColor()) {
+            mLabelPaint.setColor(color);
+            mPicture = null;
+        }
+    }
+
+    /**
+     * Calculate the layout for the specified boundaries if it is not already calculated.
+     *
+     * @param width  The width of the boundaries
+     * @param height The height of the boundaries
+     */
+    private void ensureLayout(int width, int height) {
+        if(width != mLayoutWidth || height != mLayoutHeight) {
+            if(mHeatMap) {
+                measureHeatMap(width, height);
+            } else {
+                measure(width, height);
+            }
+            mLayoutWidth = width;
+            mLayoutHeight = height;
+            mPicture = null;
+        }
+    }
+
+    /**
+     * Calculate the boxes of the legend items and the text size for the specified boundaries.
+     *
+     * @param width  The width of the boundaries
+     * @param height The height of the boundaries
+     */
+    private void measure(int width, int height) {
+        final int count = mLabels.length;
+        final int cols = (int)Math.ceil(count / (double)ROWS);
+        final int boxHeight = height / ROWS;
 
         mTextPaint.setTextSize(boxHeight / 2f);
 
         int boxWidth = 0;
         if(cols < 2) {
-            boxWidth = rect.width();
+            boxWidth = width;
         } else {
-            for(String value : mMap.values()) {
-                boxWidth = (int)Math.ceil(Math.max(boxWidth, mTextPaint.measureText(value)));
+            for(String label : mLabels) {
+                boxWidth = (int)Math.ceil(Math.max(boxWidth, mTextPaint.measureText(label)));
             }
             boxWidth += boxWidth / 10;
         }
 
         final float totalWidth = boxWidth * cols;
-        if(totalWidth > rect.width()) {
-            boxWidth *= rect.width() / totalWidth;
-            mTextPaint.setTextSize(mTextPaint.getTextSize() * rect.width() / totalWidth);
+        final int offsetX;
+        if(totalWidth > width) {
+            boxWidth *= width / totalWidth;
+            mTextPaint.setTextSize(mTextPaint.getTextSize() * width / totalWidth);
+            offsetX = 0;
+        } else {
+            offsetX = (int)((width - totalWidth) / 2);
+        }
+
+        mBoxes = new Rect[count];
+        mLabelX = new float[count];
+        mLabelY = new float[count];
+        for(int i = 0; i < count; i++) {
+            final int top = i % ROWS * boxHeight + 1;
+            final int left = offsetX + i / ROWS * boxWidth + 1;
+            mBoxes[i] = new Rect(left, top, left + boxWidth - 1, top + boxHeight - 1);
+            mLabelX[i] = left + boxWidth / 20f;
+            mLabelY[i] = mBoxes[i].bottom - boxHeight / 2f + mTextPaint.getTextSize() / 2;
+        }
+    }
+
+    /**
+     * Calculate the size of the gradient bar and the positions of the labels of the heat map for
+     * the specified boundaries. The title occupies the first row, the bar and the box for unknown
+     * values occupy the middle rows, and the range labels occupy the last row.
+     *
+     * @param width  The width of the boundaries
+     * @param height The height of the boundaries
+     */
+    private void measureHeatMap(int width, int height) {
+        final int rowHeight = height / ROWS;
+        mTextPaint.setTextSize(rowHeight * 0.7f);
+        mLabelPaint.setTextSize(rowHeight * 0.7f);
+
+        final float titleWidth = mLabelPaint.measureText(mTitle);
+        if(titleWidth > width) {
+            mLabelPaint.setTextSize(mLabelPaint.getTextSize() * width / titleWidth);
+        }
+        final float textOffset = rowHeight / 2f + mTextPaint.getTextSize() / 2.5f;
+        mTitleY = textOffset;
+        mRangeLabelY = rowHeight * (ROWS - 1) + textOffset;
+
+        int boxWidth = (int)Math.ceil(mTextPaint.measureText(mUnknownLabel));
+        boxWidth += boxWidth / 10;
+        final int barWidth = Math.max(1, width - boxWidth - rowHeight / 2);
+        mBar.set(0, rowHeight + 1, barWidth, rowHeight * (ROWS - 1) - 1);
+
+        final Rect box = new Rect(width - boxWidth, mBar.top, width, mBar.bottom);
+        mBoxes = new Rect[] {box};
+        mLabelX = new float[] {box.left + boxWidth / 20f};
+        mLabelY = new float[] {box.exactCenterY() + mTextPaint.getTextSize() / 2.5f};
+        mColors = new int[] {HeatMap.COLOR_UNKNOWN};
+
+        for(int i = 0; i < mRangeLabels.length; i++) {
+            if(mRangeLabels[i] != null) {
+                final float labelWidth = mLabelPaint.measureText(mRangeLabels[i]);
+                mRangeLabelX[i] = Math.max(0, (barWidth - labelWidth) * i / 2f);
+            }
+        }
+
+        mBarPaint.setShader(new LinearGradient(0, 0, barWidth, 0, mLut, null,
+                Shader.TileMode.CLAMP));
+    }
+
+    /**
+     * Render the legend within the specified rectangle on the specified Canvas. The legend appears
+     * as a grid of colored rectangles in 4 rows and a variable number of columns. Each rectangle
+     * contains text declaring the value represented by the rectangle's color. Heat maps are drawn
+     * as a gradient bar instead. The layout is only recalculated when the size of the rectangle
+     * changes.
+     *
+     * @param canvas Canvas on which to draw
+     * @param rect   Boundaries within which to draw
+     */
+    void drawLegend(@NonNull Canvas canvas, @NonNull Rect rect) {
+        ensureLayout(rect.width(), rect.height());
+
+        final int save = canvas.save();
+        canvas.translate(rect.left, rect.top);
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M || !canvas.isHardwareAccelerated()) {
+            if(mPicture == null) {
+                mPicture = new Picture();
+                drawContent(mPicture.beginRecording(mLayoutWidth, mLayoutHeight));
+                mPicture.endRecording();
+            }
+            canvas.drawPicture(mPicture);
         } else {
-            rect.left += (rect.width() - totalWidth) / 2;
+            drawContent(canvas);
         }
+        canvas.restoreToCount(save);
+    }
 
-        int n = 0;
-        for(Entry<String, String> entry : mMap.entrySet()) {
-            mRect.top = rect.top + n % rows * boxHeight + 1;
-            mRect.left = rect.left + n / rows * boxWidth + 1;
-            mRect.bottom = mRect.top + boxHeight - 1;
-            mRect.right = mRect.left + boxWidth - 1;
+    /**
+     * Draw the calculated layout with its top left at the origin of the Canvas.
+     *
+     * @param canvas Canvas on which to draw
+     */
+    private void drawContent(@NonNull Canvas canvas) {
+        for(int i = 0; i < mBoxes.length; i++) {
+            mPaint.setColor(mColors[i]);
+            canvas.drawRect(mBoxes[i], mPaint);
+            canvas.drawText(mHeatMap ? mUnknownLabel : mLabels[i], mLabelX[i], mLabelY[i],
+                    mTextPaint);
+        }
 
-            mPaint.setColor(ElementUtils.getKeyColor(entry.getKey()));
-            canvas.drawRect(mRect, mPaint);
+        if(mHeatMap) {
+            canvas.drawText(mTitle, 0, mTitleY, mLabelPaint);
+            if(mRangeLabels[0] != null) {
+                canvas.drawRect(mBar, mBarPaint);
+            }
+            for(int i = 0; i < mRangeLabels.length; i++) {
+                if(mRangeLabels[i] != null) {
+                    canvas.drawText(mRangeLabels[i], mRangeLabelX[i], mRangeLabelY, mLabelPaint);
+                }
+            }
+        }
+    }
 
-            canvas.drawText(entry.getValue(), mRect.left + boxWidth / 20f,
-                    mRect.bottom - boxHeight / 2f + mTextPaint.getTextSize() / 2, mTextPaint);
+    /**
+     * Find the legend item at a point when the legend is drawn within the specified rectangle.
+     *
+     * @param rect Boundaries within which the legend is drawn
+     * @param x    The horizontal position of the point
+     * @param y    The vertical position of the point
+     * @return The category or block ordinal of the item, or -1 if there is no item at the point
+     * or the legend is showing a heat map
+     */
+    int findItemAt(@NonNull Rect rect, int x, int y) {
+        if(mHeatMap || !rect.contains(x, y)) {
+            return -1;
+        }
 
-            n++;
+        ensureLayout(rect.width(), rect.height());
+        x -= rect.left;
+        y -= rect.top;
+        for(int i = 0; i < mBoxes.length; i++) {
+            if(mBoxes[i].contains(x, y)) {
+                return i;
+            }
         }
+        return -1;
     }
 }
@@ -0,0 +1,754 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.MotionEvent;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.ElementSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Alternative to PeriodicTableView that renders on a dedicated thread. The table is drawn by a
+ * PeriodicTableView that is owned by the render thread and never attached to a window, so the
+ * gesture detection, scrolling and zoom animation all run off the UI thread along with the
+ * drawing. The UI thread publishes the content of the table as immutable FrameState objects and
+ * forwards touch events through a lock-free queue. Listener callbacks are delivered on the UI
+ * thread, and the View owned by the render thread is never passed to them.
+ * <p>
+ * This View does not expose the blocks to accessibility services, so PeriodicTableView remains the
+ * default. It is intended for dedicated hardware such as kiosks.
+ *
+ * @author Steve Guidetti
+ */
+public class PeriodicTableSurfaceView extends SurfaceView
+        implements PeriodicTable, SurfaceHolder.Callback {
+    /**
+     * The name of the render thread
+     */
+    private static final String THREAD_NAME = "PeriodicTableRender";
+
+    /**
+     * The delay between frames in milliseconds when the Choreographer is not available
+     */
+    private static final long FRAME_DELAY = 16;
+
+    /**
+     * The most recently published content of the table
+     */
+    @NonNull
+    private final AtomicReference<FrameState> mFrameState =
+            new AtomicReference<>(FrameState.EMPTY);
+
+    /**
+     * Copies of the touch events waiting to be processed by the render thread
+     */
+    @NonNull
+    private final ConcurrentLinkedQueue<MotionEvent> mInputQueue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Handler for delivering listener callbacks on the UI thread
+     */
+    @NonNull
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /**
+     * The title, foreground color, background color and tile cache setting from the layout
+     */
+    @Nullable
+    private final CharSequence mTitle;
+    private final int mFgColor;
+    private final int mBgColor;
+    private final boolean mTileCacheEnabled;
+
+    /**
+     * Callback for events
+     */
+    @Nullable
+    private PeriodicTableView.PeriodicTableListener mPeriodicTableListener;
+
+    /**
+     * Whether the table can be zoomed in or out, as of the last zoom operation on the render
+     * thread. Only accessed by the UI thread.
+     */
+    private boolean mCanZoomIn = true;
+    private boolean mCanZoomOut;
+
+    /**
+     * The render thread, which exists while this View is attached to a window
+     */
+    @Nullable
+    private RenderThread mRenderThread;
+
+    public PeriodicTableSurfaceView(Context context) {
+        this(context, null, 0);
+    }
+
+    public PeriodicTableSurfaceView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public PeriodicTableSurfaceView(Context context, AttributeSet attrs, int defStyle) {
+        super(context, attrs, defStyle);
+
+        final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.PeriodicTableView,
+                defStyle, 0);
+
+        mTitle = a.getText(R.styleable.PeriodicTableView_title);
+        mFgColor = a.getColor(R.styleable.PeriodicTableView_fgColor, 0xff000000);
+        mBgColor = a.getColor(R.styleable.PeriodicTableView_bgColor, 0xffffffff);
+        mTileCacheEnabled = a.getBoolean(R.styleable.PeriodicTableView_tileCache, false);
+
+        a.recycle();
+
+        getHolder().addCallback(this);
+    }
+
+    @Override
+    public void setPeriodicTableListener(
+            @Nullable PeriodicTableView.PeriodicTableListener listener) {
+        mPeriodicTableListener = listener;
+    }
+
+    /**
+     * Set the list of blocks to be rendered. The blocks are owned by the render thread after this
+     * call and must not be modified.
+     *
+     * @param blocks The list of blocks
+     */
+    @Override
+    public void setBlocks(@NonNull List<PeriodicTableBlock> blocks) {
+        final FrameState state = mFrameState.get();
+        publish(new FrameState(new ArrayList<>(blocks), null, null, state.highlight,
+                state.legendVersion));
+    }
+
+    /**
+     * Replace the subtext of every block without changing the layout. The array must not be
+     * modified after this call.
+     *
+     * @param subtexts The subtext for each element, indexed by atomic number minus one
+     */
+    @Override
+    public void setSubtexts(@NonNull String[] subtexts) {
+        final FrameState state = mFrameState.get();
+        publish(new FrameState(state.blocks, subtexts, state.colors, state.highlight,
+                state.legendVersion));
+    }
+
+    /**
+     * Replace the background color of every block without changing the layout. The array must not
+     * be modified after this call.
+     *
+     * @param colors The color for each element, indexed by atomic number minus one
+     */
+    @Override
+    public void setBlockColors(@NonNull int[] colors) {
+        final FrameState state = mFrameState.get();
+        publish(new FrameState(state.blocks, state.subtexts, colors, state.highlight,
+                state.legendVersion));
+    }
+
+    @Override
+    public void setHighlight(@Nullable ElementSet highlight) {
+        final FrameState state = mFrameState.get();
+        publish(new FrameState(state.blocks, state.subtexts, state.colors,
+                highlight == null ? null : new ElementSet(highlight), state.legendVersion));
+    }
+
+    @Override
+    public void invalidateLegend() {
+        final FrameState state = mFrameState.get();
+        publish(new FrameState(state.blocks, state.subtexts, state.colors, state.highlight,
+                state.legendVersion + 1));
+    }
+
+    /**
+     * Check whether the table can be zoomed in. This reflects the zoom level at the end of the
+     * last zoom operation on the render thread.
+     *
+     * @return Whether the table can be zoomed in
+     */
+    @Override
+    public boolean canZoomIn() {
+        return mCanZoomIn;
+    }
+
+    /**
+     * Check whether the table can be zoomed out. This reflects the zoom level at the end of the
+     * last zoom operation on the render thread.
+     *
+     * @return Whether the table can be zoomed out
+     */
+    @Override
+    public boolean canZoomOut() {
+        return mCanZoomOut;
+    }
+
+    @Override
+    public void zoomIn() {
+        if(mRenderThread != null) {
+            mRenderThread.post(RenderThread.COMMAND_ZOOM_IN);
+        }
+    }
+
+    @Override
+    public void zoomOut() {
+        if(mRenderThread != null) {
+            mRenderThread.post(RenderThread.COMMAND_ZOOM_OUT);
+        }
+    }
+
+    /**
+     * Publish a new FrameState to the render thread. Only the UI thread publishes states.
+     *
+     * @param state The new FrameState
+     */
+    private void publish(@NonNull FrameState state) {
+        mFrameState.set(state);
+        if(mRenderThread != null) {
+            mRenderThread.requestFrame();
+        }
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if(mRenderThread == null) {
+            return false;
+        }
+        mInputQueue.offer(MotionEvent.obtain(event));
+        mRenderThread.requestFrame();
+        return true;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mRenderThread = new RenderThread();
+        mRenderThread.start();
+        mRenderThread.init();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if(mRenderThread != null) {
+            mRenderThread.finish();
+            mRenderThread = null;
+        }
+        MotionEvent event;
+        while((event = mInputQueue.poll()) != null) {
+            event.recycle();
+        }
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        if(mRenderThread != null) {
+            mRenderThread.setSurfaceSize(width, height);
+        }
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        if(mRenderThread != null) {
+            mRenderThread.releaseSurface();
+        }
+    }
+
+    /**
+     * Deliver a block click to the listener on the UI thread.
+     *
+     * @param item The selected block
+     */
+    private void dispatchItemClick(@NonNull final PeriodicTableBlock item) {
+        mMainHandler.post(() -> {
+            if(mPeriodicTableListener != null) {
+                mPeriodicTableListener.onItemClick(item);
+            }
+        });
+    }
+
+    /**
+     * Deliver a legend item click to the listener on the UI thread.
+     *
+     * @param item The category or block ordinal of the legend item
+     */
+    private void dispatchLegendItemClick(final int item) {
+        mMainHandler.post(() -> {
+            if(mPeriodicTableListener != null) {
+                mPeriodicTableListener.onLegendItemClick(item);
+            }
+        });
+    }
+
+    /**
+     * Publish the zoom state and deliver the end of a zoom operation to the listener on the UI
+     * thread. Called by the render thread.
+     *
+     * @param canZoomIn  Whether the table can be zoomed in
+     * @param canZoomOut Whether the table can be zoomed out
+     */
+    private void dispatchZoomEnd(final boolean canZoomIn, final boolean canZoomOut) {
+        mMainHandler.post(() -> {
+            mCanZoomIn = canZoomIn;
+            mCanZoomOut = canZoomOut;
+            if(mPeriodicTableListener != null) {
+                mPeriodicTableListener.onZoomEnd(PeriodicTableSurfaceView.this);
+            }
+        });
+    }
+
+    /**
+     * Immutable snapshot of the content of the table published by the UI thread. The render
+     * thread compares each field by reference to the last state it applied and only updates what
+     * has changed. The viewport, zoom level and selection are not included since they are driven
+     * by the gestures and animations that run on the render thread.
+     */
+    private static final class FrameState {
+        /**
+         * The initial state with no content
+         */
+        static final FrameState EMPTY = new FrameState(null, null, null, null, 0);
+
+        /**
+         * The list of blocks
+         */
+        @Nullable
+        final List<PeriodicTableBlock> blocks;
+
+        /**
+         * The subtexts set since the blocks were set
+         */
+        @Nullable
+        final String[] subtexts;
+
+        /**
+         * The block colors set since the blocks were set
+         */
+        @Nullable
+        final int[] colors;
+
+        /**
+         * The set of highlighted elements
+         */
+        @Nullable
+        final ElementSet highlight;
+
+        /**
+         * Incremented each time the legend is invalidated
+         */
+        final int legendVersion;
+
+        FrameState(@Nullable List<PeriodicTableBlock> blocks, @Nullable String[] subtexts,
+                   @Nullable int[] colors, @Nullable ElementSet highlight, int legendVersion) {
+            this.blocks = blocks;
+            this.subtexts = subtexts;
+            this.colors = colors;
+            this.highlight = highlight;
+            this.legendVersion = legendVersion;
+        }
+    }
+
+    /**
+     * The thread that owns the PeriodicTableView and draws it to the Surface. Frames are only
+     * scheduled while there is input to process or something to draw.
+     */
+    private final class RenderThread extends HandlerThread {
+        /**
+         * Commands that may be posted to the render thread
+         */
+        static final int COMMAND_ZOOM_IN = 0;
+        static final int COMMAND_ZOOM_OUT = 1;
+
+        /**
+         * Whether a request to schedule a frame is pending from the UI thread
+         */
+        @NonNull
+        private final AtomicBoolean mFrameRequested = new AtomicBoolean();
+
+        /**
+         * Handles a frame request from the UI thread
+         */
+        @NonNull
+        private final Runnable mFrameRequest = () -> {
+            mFrameRequested.set(false);
+            scheduleFrame();
+        };
+
+        /**
+         * Runs a frame when the Choreographer is not available
+         */
+        @NonNull
+        private final Runnable mFrameRunnable = this::doFrame;
+
+        /**
+         * Handler for the render thread, created by the UI thread before anything is posted
+         */
+        private Handler mHandler;
+
+        /**
+         * The PeriodicTableView being rendered, created on the render thread so that its gesture
+         * detectors use its Looper
+         */
+        private RenderView mView;
+
+        /**
+         * The last FrameState applied to the PeriodicTableView
+         */
+        @NonNull
+        private FrameState mAppliedState = FrameState.EMPTY;
+
+        /**
+         * The callback for Choreographer frames, if available
+         */
+        @Nullable
+        private Choreographer.FrameCallback mFrameCallback;
+
+        /**
+         * Whether a frame is scheduled
+         */
+        private boolean mFramePosted;
+
+        /**
+         * Whether the PeriodicTableView needs to be drawn
+         */
+        private boolean mDirty;
+
+        /**
+         * Whether the entire PeriodicTableView needs to be drawn, rather than only the dirty
+         * rectangle
+         */
+        private boolean mDirtyAll;
+
+        /**
+         * The area of the PeriodicTableView that needs to be drawn
+         */
+        @NonNull
+        private final Rect mDirtyRect = new Rect();
+
+        /**
+         * Whether the Surface is available for drawing
+         */
+        private boolean mSurfaceValid;
+
+        RenderThread() {
+            super(THREAD_NAME, Process.THREAD_PRIORITY_DISPLAY);
+        }
+
+        /**
+         * Create the Handler for posting to the render thread and post the creation of the
+         * PeriodicTableView. Called by the UI thread after starting the thread.
+         */
+        void init() {
+            mHandler = new Handler(getLooper());
+            mHandler.post(() -> {
+                if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                    mFrameCallback = frameTimeNanos -> doFrame();
+                }
+                mView = new RenderView(getContext());
+            });
+        }
+
+        /**
+         * Post a command to the render thread.
+         *
+         * @param command One of the COMMAND_ constants
+         */
+        void post(final int command) {
+            mHandler.post(() -> {
+                if(command == COMMAND_ZOOM_IN) {
+                    mView.zoomIn();
+                } else if(command == COMMAND_ZOOM_OUT) {
+                    mView.zoomOut();
+                }
+            });
+        }
+
+        /**
+         * Request a frame to process new input or a new FrameState. Called by the UI thread.
+         */
+        void requestFrame() {
+            if(mFrameRequested.compareAndSet(false, true)) {
+                mHandler.post(mFrameRequest);
+            }
+        }
+
+        /**
+         * Set the size of the Surface. Called by the UI thread.
+         *
+         * @param width  The width of the Surface
+         * @param height The height of the Surface
+         */
+        void setSurfaceSize(final int width, final int height) {
+            mHandler.post(() -> {
+                mView.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+                mView.layout(0, 0, width, height);
+                mSurfaceValid = true;
+                invalidateFrame();
+            });
+        }
+
+        /**
+         * Stop drawing to the Surface. Called by the UI thread, which is blocked until any frame
+         * in progress is complete.
+         */
+        void releaseSurface() {
+            final CountDownLatch latch = new CountDownLatch(1);
+            final boolean posted = mHandler.post(() -> {
+                mSurfaceValid = false;
+                latch.countDown();
+            });
+            if(!posted) {
+                return;
+            }
+            try {
+                latch.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Release the PeriodicTableView and stop the thread. Called by the UI thread.
+         */
+        void finish() {
+            mHandler.post(() -> {
+                mSurfaceValid = false;
+                mView.releaseBitmaps();
+                quit();
+            });
+        }
+
+        /**
+         * Mark the PeriodicTableView as needing to be drawn and schedule a frame.
+         */
+        void invalidateFrame() {
+            mDirtyAll = true;
+            mDirty = true;
+            scheduleFrame();
+        }
+
+        /**
+         * Mark an area of the PeriodicTableView as needing to be drawn and schedule a frame.
+         *
+         * @param left   The left edge of the area
+         * @param top    The top edge of the area
+         * @param right  The right edge of the area
+         * @param bottom The bottom edge of the area
+         */
+        void invalidateFrame(int left, int top, int right, int bottom) {
+            if(!mDirtyAll) {
+                mDirtyRect.union(left, top, right, bottom);
+            }
+            mDirty = true;
+            scheduleFrame();
+        }
+
+        /**
+         * Schedule a frame if one is not already scheduled.
+         */
+        private void scheduleFrame() {
+            if(mFramePosted) {
+                return;
+            }
+            mFramePosted = true;
+            if(mFrameCallback != null) {
+                Choreographer.getInstance().postFrameCallback(mFrameCallback);
+            } else {
+                mHandler.postDelayed(mFrameRunnable, FRAME_DELAY);
+            }
+        }
+
+        /**
+         * Process pending input and state changes, advance the animations and draw the
+         * PeriodicTableView to the Surface if it has changed.
+         */
+        private void doFrame() {
+            mFramePosted = false;
+
+            applyFrameState(mFrameState.get());
+
+            MotionEvent event;
+            while((event = mInputQueue.poll()) != null) {
+                mView.onTouchEvent(event);
+                event.recycle();
+            }
+
+            mView.computeScroll();
+
+            if(mDirty && mSurfaceValid) {
+                final SurfaceHolder holder = getHolder();
+                final Canvas canvas =
+                        mDirtyAll ? holder.lockCanvas() : holder.lockCanvas(mDirtyRect);
+                mDirty = false;
+                mDirtyAll = false;
+                mDirtyRect.setEmpty();
+                if(canvas != null) {
+                    try {
+                        mView.draw(canvas);
+                    } finally {
+                        holder.unlockCanvasAndPost(canvas);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Apply the changes between the last applied FrameState and a new FrameState to the
+         * PeriodicTableView.
+         *
+         * @param state The new FrameState
+         */
+        private void applyFrameState(@NonNull FrameState state) {
+            final FrameState applied = mAppliedState;
+            if(state == applied) {
+                return;
+            }
+
+            final boolean blocksChanged = state.blocks != applied.blocks;
+            if(blocksChanged && state.blocks != null) {
+                mView.setBlocks(state.blocks);
+            }
+            if(state.subtexts != null && (blocksChanged || state.subtexts != applied.subtexts)) {
+                mView.setSubtexts(state.subtexts);
+            }
+            if(state.colors != null && (blocksChanged || state.colors != applied.colors)) {
+                mView.setBlockColors(state.colors);
+            }
+            if(state.highlight != applied.highlight) {
+                mView.setHighlight(state.highlight);
+            }
+            if(state.legendVersion != applied.legendVersion) {
+                mView.invalidateLegend();
+            }
+
+            mAppliedState = state;
+        }
+
+        /**
+         * The PeriodicTableView owned by the render thread. Requests to redraw are redirected to
+         * the render thread instead of the View hierarchy, keeping track of the dirty area so
+         * that small changes only redraw part of the Surface.
+         */
+        private final class RenderView extends PeriodicTableView {
+            RenderView(@NonNull Context context) {
+                super(context);
+                if(mTitle != null) {
+                    setTitle(mTitle);
+                }
+                setFgColor(mFgColor);
+                setBgColor(mBgColor);
+                setTileCacheEnabled(mTileCacheEnabled);
+                setPeriodicTableListener(new PeriodicTableListener() {
+                    @Override
+                    public void onItemClick(@NonNull PeriodicTableBlock item) {
+                        dispatchItemClick(item);
+                    }
+
+                    @Override
+                    public void onLegendItemClick(int item) {
+                        dispatchLegendItemClick(item);
+                    }
+
+                    @Override
+                    public void onZoomEnd(@NonNull PeriodicTable periodicTable) {
+                        dispatchZoomEnd(RenderView.this.canZoomIn(),
+                                RenderView.this.canZoomOut());
+                    }
+                });
+            }
+
+            @Override
+            public void invalidate() {
+                invalidateFrame();
+            }
+
+            @Override
+            public void postInvalidate() {
+                invalidateFrame();
+            }
+
+            @Override
+            public void postInvalidateDelayed(long delayMilliseconds) {
+                invalidateFrame();
+            }
+
+            @Override
+            public void postInvalidateOnAnimation() {
+                invalidateFrame();
+            }
+
+            @Override
+            public void invalidate(int left, int top, int right, int bottom) {
+                invalidateFrame(left, top, right, bottom);
+            }
+
+            @Override
+            public void postInvalidate(int left, int top, int right, int bottom) {
+                invalidateFrame(left, top, right, bottom);
+            }
+
+            @Override
+            public void postInvalidateDelayed(long delayMilliseconds, int left, int top,
+                                              int right, int bottom) {
+                invalidateFrame(left, top, right, bottom);
+            }
+
+            @Override
+            public void postInvalidateOnAnimation(int left, int top, int right, int bottom) {
+                invalidateFrame(left, top, right, bottom);
+            }
+        }
+    }
+}
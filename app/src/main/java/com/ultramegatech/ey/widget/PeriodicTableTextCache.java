@@ -0,0 +1,265 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * Cache of the text labels of the blocks of a PeriodicTableView. Block sizes are quantized to a
+ * small set of buckets, and the labels of every block are rendered once per bucket into an alpha
+ * atlas bitmap with one square cell per block. Blocks are then labeled by drawing their cell
+ * scaled to the actual block size in the text color, so the text paints do not need to be resized
+ * and no text needs to be shaped while zooming.
+ *
+ * @author Steve Guidetti
+ */
+class PeriodicTableTextCache {
+    /**
+     * The largest cell size to cache, above which labels should be drawn directly
+     */
+    static final int MAX_CELL_SIZE = 128;
+
+    /**
+     * The natural logarithm of the ratio between consecutive bucket sizes
+     */
+    private static final double LOG_BUCKET_RATIO = Math.log(1.125);
+
+    /**
+     * The maximum number of atlases to keep
+     */
+    private static final int MAX_ATLASES = 3;
+
+    /**
+     * Callback interface for rendering cells.
+     */
+    interface CellRenderer {
+        /**
+         * Render the labels of a block within a cell of the atlas.
+         *
+         * @param canvas   The Canvas
+         * @param index    The index of the block
+         * @param cell     The boundaries of the cell
+         * @param cellSize The block size to render at
+         */
+        void renderCell(@NonNull Canvas canvas, int index, @NonNull Rect cell, int cellSize);
+    }
+
+    /**
+     * A single cached atlas
+     */
+    private static class Atlas {
+        /**
+         * The block size the atlas was rendered at
+         */
+        final int cellSize;
+
+        /**
+         * The number of cells in each row of the atlas
+         */
+        final int cols;
+
+        /**
+         * The rendered labels
+         */
+        @NonNull
+        final Bitmap bitmap;
+
+        /**
+         * @param cellSize The block size the atlas was rendered at
+         * @param cols     The number of cells in each row of the atlas
+         * @param bitmap   The rendered labels
+         */
+        Atlas(int cellSize, int cols, @NonNull Bitmap bitmap) {
+            this.cellSize = cellSize;
+            this.cols = cols;
+            this.bitmap = bitmap;
+        }
+    }
+
+    /**
+     * The renderer for new atlases
+     */
+    @NonNull
+    private final CellRenderer mRenderer;
+
+    /**
+     * The cached atlases, with the most recently used first
+     */
+    @NonNull
+    private final ArrayList<Atlas> mAtlases = new ArrayList<>();
+
+    /**
+     * The atlas for the current block size, or null if labels should be drawn directly
+     */
+    @Nullable
+    private Atlas mCurrent;
+
+    /**
+     * Canvas used to render atlases
+     */
+    @NonNull
+    private final Canvas mCanvas = new Canvas();
+
+    /**
+     * Paint used to draw cells, with filtering for scaled cells
+     */
+    @NonNull
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * Rectangles used to render and draw cells
+     */
+    @NonNull
+    private final Rect mSrcRect = new Rect();
+    @NonNull
+    private final Rect mDstRect = new Rect();
+
+    /**
+     * @param renderer The renderer for new atlases
+     */
+    PeriodicTableTextCache(@NonNull CellRenderer renderer) {
+        mRenderer = renderer;
+    }
+
+    /**
+     * Get the bucket for a block size.
+     *
+     * @param blockSize The block size
+     * @return The cell size of the bucket, or 0 if the block size is too large to cache
+     */
+    static int getCellSize(int blockSize) {
+        if(blockSize <= 0) {
+            return 0;
+        }
+        final long bucket = Math.round(Math.log(blockSize) / LOG_BUCKET_RATIO);
+        final int cellSize = (int)Math.round(Math.exp(bucket * LOG_BUCKET_RATIO));
+        return cellSize > MAX_CELL_SIZE ? 0 : cellSize;
+    }
+
+    /**
+     * Select the atlas for a block size, rendering it if it is not cached.
+     *
+     * @param blockSize The block size
+     * @param count     The number of blocks
+     * @return Whether an atlas is available, or false if labels should be drawn directly
+     */
+    boolean prepare(int blockSize, int count) {
+        final int cellSize = getCellSize(blockSize);
+        if(cellSize == 0 || count == 0) {
+            mCurrent = null;
+            return false;
+        }
+        if(mCurrent != null && mCurrent.cellSize == cellSize) {
+            return true;
+        }
+
+        for(int i = 0; i < mAtlases.size(); i++) {
+            final Atlas atlas = mAtlases.get(i);
+            if(atlas.cellSize == cellSize) {
+                mAtlases.remove(i);
+                mAtlases.add(0, atlas);
+                mCurrent = atlas;
+                return true;
+            }
+        }
+
+        mCurrent = render(cellSize, count);
+        mAtlases.add(0, mCurrent);
+        while(mAtlases.size() > MAX_ATLASES) {
+            mAtlases.remove(mAtlases.size() - 1);
+        }
+        return true;
+    }
+
+    /**
+     * Render a new atlas.
+     *
+     * @param cellSize The block size to render at
+     * @param count    The number of blocks
+     * @return The atlas
+     */
+    @NonNull
+    private Atlas render(int cellSize, int count) {
+        final int cols = (int)Math.ceil(Math.sqrt(count));
+        final int rows = (count + cols - 1) / cols;
+        final Bitmap bitmap =
+                Bitmap.createBitmap(cols * cellSize, rows * cellSize, Bitmap.Config.ALPHA_8);
+        mCanvas.setBitmap(bitmap);
+        for(int i = 0; i < count; i++) {
+            mSrcRect.left = i % cols * cellSize;
+            mSrcRect.top = i / cols * cellSize;
+            mSrcRect.right = mSrcRect.left + cellSize;
+            mSrcRect.bottom = mSrcRect.top + cellSize;
+
+            final int save = mCanvas.save();
+            mCanvas.clipRect(mSrcRect);
+            mRenderer.renderCell(mCanvas, i, mSrcRect, cellSize);
+            mCanvas.restoreToCount(save);
+        }
+        mCanvas.setBitmap(null);
+        return new Atlas(cellSize, cols, bitmap);
+    }
+
+    /**
+     * Draw the labels of a block from the current atlas.
+     *
+     * @param canvas    The Canvas
+     * @param index     The index of the block
+     * @param left      The left edge of the block
+     * @param top       The top edge of the block
+     * @param blockSize The current block size
+     * @param color     The color of the text
+     */
+    void drawCell(@NonNull Canvas canvas, int index, int left, int top, int blockSize,
+                  int color) {
+        final Atlas atlas = mCurrent;
+        if(atlas == null) {
+            return;
+        }
+
+        mSrcRect.left = index % atlas.cols * atlas.cellSize;
+        mSrcRect.top = index / atlas.cols * atlas.cellSize;
+        mSrcRect.right = mSrcRect.left + atlas.cellSize;
+        mSrcRect.bottom = mSrcRect.top + atlas.cellSize;
+        mDstRect.set(left, top, left + blockSize, top + blockSize);
+
+        mPaint.setColor(color);
+        canvas.drawBitmap(atlas.bitmap, mSrcRect, mDstRect, mPaint);
+    }
+
+    /**
+     * Remove all atlases, such as when the labels change.
+     */
+    void invalidate() {
+        mAtlases.clear();
+        mCurrent = null;
+    }
+}
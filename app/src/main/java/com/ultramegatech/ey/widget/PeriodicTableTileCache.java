@@ -0,0 +1,389 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.collection.LongSparseArray;
+
+import java.util.ArrayList;
+
+/**
+ * Cache of bitmap tiles containing the rendered content of a PeriodicTableView. Tiles are fixed
+ * size squares of the content rendered at a specific level, which is the block size used to render
+ * it. Tiles from multiple levels are kept to form a pyramid, so a level close to the current block
+ * size can be scaled while the zoom level is changing. When the memory budget is exceeded, the
+ * least recently drawn tiles are evicted and their bitmaps are reused. Tiles drawn in the current
+ * frame are never evicted, so drawing fails if the visible area needs more tiles than the budget.
+ *
+ * @author Steve Guidetti
+ */
+class PeriodicTableTileCache {
+    /**
+     * The width and height of a tile in pixels
+     */
+    static final int TILE_SIZE = 256;
+
+    /**
+     * The number of bytes used by a tile bitmap
+     */
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 4;
+
+    /**
+     * The maximum number of evicted bitmaps to keep for reuse
+     */
+    private static final int MAX_FREE_BITMAPS = 4;
+
+    /**
+     * Callback interface for rendering tiles.
+     */
+    interface TileRenderer {
+        /**
+         * Render the content of a tile at the current block size. The Canvas is the size of the
+         * tile, with the origin at the top left corner of the tile.
+         *
+         * @param canvas The Canvas
+         * @param left   The left edge of the tile within the content
+         * @param top    The top edge of the tile within the content
+         */
+        void renderTile(@NonNull Canvas canvas, int left, int top);
+    }
+
+    /**
+     * A single cached tile
+     */
+    private static class Tile {
+        /**
+         * The rendered content
+         */
+        @NonNull
+        final Bitmap bitmap;
+
+        /**
+         * The value of the draw counter when this tile was last drawn
+         */
+        long lastUsed;
+
+        /**
+         * @param bitmap The rendered content
+         */
+        Tile(@NonNull Bitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+
+    /**
+     * The renderer for new tiles
+     */
+    @NonNull
+    private final TileRenderer mRenderer;
+
+    /**
+     * The maximum number of tiles to keep
+     */
+    private final int mMaxTiles;
+
+    /**
+     * The cached tiles, keyed by level and position
+     */
+    @NonNull
+    private final LongSparseArray<Tile> mTiles = new LongSparseArray<>();
+
+    /**
+     * Evicted bitmaps available for reuse
+     */
+    @NonNull
+    private final ArrayList<Bitmap> mFreeBitmaps = new ArrayList<>();
+
+    /**
+     * Counter incremented on every draw, used to determine the least recently used tiles
+     */
+    private long mDrawCount;
+
+    /**
+     * The number of tiles drawn by the last call to draw
+     */
+    private int mDrawnTiles;
+
+    /**
+     * Canvas used to render tiles
+     */
+    @NonNull
+    private final Canvas mCanvas = new Canvas();
+
+    /**
+     * Paint used to draw tiles, with filtering for scaled tiles
+     */
+    @NonNull
+    private final Paint mPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * Rectangle used to draw tiles
+     */
+    @NonNull
+    private final RectF mRect = new RectF();
+
+    /**
+     * Rectangle used to check tile boundaries
+     */
+    @NonNull
+    private final Rect mTileRect = new Rect();
+
+    /**
+     * @param renderer The renderer for new tiles
+     * @param maxBytes The maximum number of bytes to use for tile bitmaps
+     */
+    PeriodicTableTileCache(@NonNull TileRenderer renderer, int maxBytes) {
+        mRenderer = renderer;
+        mMaxTiles = Math.max(1, maxBytes / TILE_BYTES);
+    }
+
+    /**
+     * Create the key for a tile.
+     *
+     * @param level The level of the tile
+     * @param col   The column of the tile
+     * @param row   The row of the tile
+     * @return The key
+     */
+    private static long getKey(int level, int col, int row) {
+        return ((long)level << 40) | ((long)col << 20) | row;
+    }
+
+    /**
+     * Check whether any tiles exist for a level.
+     *
+     * @param level The level
+     * @return Whether the level has tiles
+     */
+    boolean hasLevel(int level) {
+        for(int i = 0; i < mTiles.size(); i++) {
+            if(mTiles.keyAt(i) >>> 40 == level) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the level with tiles that is closest to the specified level. Larger levels are
+     * preferred on ties since they scale down with less loss of detail.
+     *
+     * @param level The target level
+     * @return The nearest level, or -1 if there are no tiles
+     */
+    int findNearestLevel(int level) {
+        int nearest = -1;
+        int nearestDistance = Integer.MAX_VALUE;
+        for(int i = 0; i < mTiles.size(); i++) {
+            final int tileLevel = (int)(mTiles.keyAt(i) >>> 40);
+            final int distance = Math.abs(tileLevel - level);
+            if(distance < nearestDistance
+                    || (distance == nearestDistance && tileLevel > nearest)) {
+                nearest = tileLevel;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Draw the visible tiles of a level onto the supplied Canvas.
+     *
+     * @param canvas        The Canvas
+     * @param level         The level of the tiles to draw
+     * @param scale         The scale factor to apply to the tiles
+     * @param originX       The horizontal position of the content within the Canvas
+     * @param originY       The vertical position of the content within the Canvas
+     * @param visible       The area of the Canvas to fill with tiles
+     * @param contentWidth  The width of the content at the specified level
+     * @param contentHeight The height of the content at the specified level
+     * @param render        Whether to render missing tiles, which is only possible for the
+     *                      level matching the current block size
+     * @return False if a tile was missing and could not be rendered
+     */
+    boolean draw(@NonNull Canvas canvas, int level, float scale, int originX, int originY,
+                 @NonNull Rect visible, int contentWidth, int contentHeight, boolean render) {
+        mDrawCount++;
+        mDrawnTiles = 0;
+
+        final float tileSize = TILE_SIZE * scale;
+        final int firstCol = Math.max(0, (int)((visible.left - originX) / tileSize));
+        final int firstRow = Math.max(0, (int)((visible.top - originY) / tileSize));
+        final int lastCol = Math.min((contentWidth - 1) / TILE_SIZE,
+                (int)((visible.right - 1 - originX) / tileSize));
+        final int lastRow = Math.min((contentHeight - 1) / TILE_SIZE,
+                (int)((visible.bottom - 1 - originY) / tileSize));
+
+        for(int row = firstRow; row <= lastRow; row++) {
+            for(int col = firstCol; col <= lastCol; col++) {
+                final long key = getKey(level, col, row);
+                Tile tile = mTiles.get(key);
+                if(tile == null) {
+                    if(!render) {
+                        return false;
+                    }
+                    tile = renderTile(key, col, row);
+                    if(tile == null) {
+                        return false;
+                    }
+                }
+                tile.lastUsed = mDrawCount;
+
+                mRect.left = originX + col * tileSize;
+                mRect.top = originY + row * tileSize;
+                mRect.right = mRect.left + tileSize;
+                mRect.bottom = mRect.top + tileSize;
+                canvas.drawBitmap(tile.bitmap, null, mRect, mPaint);
+                mDrawnTiles++;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Get the number of tiles drawn by the last call to draw.
+     *
+     * @return The number of tiles
+     */
+    int getDrawnTileCount() {
+        return mDrawnTiles;
+    }
+
+    /**
+     * Render a new tile and add it to the cache.
+     *
+     * @param key The key of the tile
+     * @param col The column of the tile
+     * @param row The row of the tile
+     * @return The new tile, or null if the cache is full of tiles drawn in the current frame
+     */
+    @Nullable
+    private Tile renderTile(long key, int col, int row) {
+        while(mTiles.size() >= mMaxTiles) {
+            if(!evictLeastRecentlyUsed()) {
+                return null;
+            }
+        }
+
+        final Bitmap bitmap;
+        if(mFreeBitmaps.isEmpty()) {
+            bitmap = Bitmap.createBitmap(TILE_SIZE, TILE_SIZE, Bitmap.Config.ARGB_8888);
+        } else {
+            bitmap = mFreeBitmaps.remove(mFreeBitmaps.size() - 1);
+        }
+
+        mCanvas.setBitmap(bitmap);
+        mRenderer.renderTile(mCanvas, col * TILE_SIZE, row * TILE_SIZE);
+        mCanvas.setBitmap(null);
+
+        final Tile tile = new Tile(bitmap);
+        mTiles.put(key, tile);
+        return tile;
+    }
+
+    /**
+     * Remove the least recently drawn tile from the cache. Tiles drawn in the current frame are
+     * never removed, since the Canvas may still reference their bitmaps.
+     *
+     * @return False if every tile was drawn in the current frame
+     */
+    private boolean evictLeastRecentlyUsed() {
+        int index = 0;
+        for(int i = 1; i < mTiles.size(); i++) {
+            if(mTiles.valueAt(i).lastUsed < mTiles.valueAt(index).lastUsed) {
+                index = i;
+            }
+        }
+        if(mTiles.valueAt(index).lastUsed == mDrawCount) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Remove a tile from the cache, keeping its bitmap for reuse if possible.
+     *
+     * @param index The index of the tile
+     */
+    private void removeAt(int index) {
+        final Bitmap bitmap = mTiles.valueAt(index).bitmap;
+        mTiles.removeAt(index);
+        if(mFreeBitmaps.size() < MAX_FREE_BITMAPS) {
+            mFreeBitmaps.add(bitmap);
+        } else {
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * Remove the tiles of a level that intersect an area of the content, along with all tiles of
+     * other levels.
+     *
+     * @param level The current level
+     * @param area  The area of the content that has changed
+     */
+    void invalidate(int level, @NonNull Rect area) {
+        for(int i = mTiles.size() - 1; i >= 0; i--) {
+            final long key = mTiles.keyAt(i);
+            if(key >>> 40 == level) {
+                final int col = (int)(key >>> 20) & 0xfffff;
+                final int row = (int)key & 0xfffff;
+                mTileRect.set(col * TILE_SIZE, row * TILE_SIZE, (col + 1) * TILE_SIZE,
+                        (row + 1) * TILE_SIZE);
+                if(!Rect.intersects(area, mTileRect)) {
+                    continue;
+                }
+            }
+            removeAt(i);
+        }
+    }
+
+    /**
+     * Remove all tiles from the cache.
+     */
+    void invalidateAll() {
+        for(int i = mTiles.size() - 1; i >= 0; i--) {
+            removeAt(i);
+        }
+    }
+
+    /**
+     * Remove all tiles and release all bitmaps.
+     */
+    void release() {
+        invalidateAll();
+        for(Bitmap bitmap : mFreeBitmaps) {
+            bitmap.recycle();
+        }
+        mFreeBitmaps.clear();
+    }
+}
@@ -26,7 +26,9 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Point;
 import android.graphics.PointF;
@@ -43,6 +45,7 @@ import android.widget.Scroller;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
 import androidx.core.widget.EdgeEffectCompat;
@@ -50,8 +53,11 @@ import androidx.customview.widget.ExploreByTouchHelper;
 
 import com.ultramegatech.ey.R;
 import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
 import com.ultramegatech.ey.util.ElementUtils;
 import com.ultramegatech.ey.util.PreferenceUtils;
+import com.ultramegatech.ey.util.Settings;
+import com.ultramegatech.ey.util.SubtextUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -64,7 +70,7 @@ import java.util.List;
  * @author Steve Guidetti
  */
 @SuppressWarnings("unused")
-public class PeriodicTableView extends View {
+public class PeriodicTableView extends View implements PeriodicTable {
     /**
      * The amount to zoom in or out for programmatic zooms
      */
@@ -85,12 +91,72 @@ public class PeriodicTableView extends View {
      */
     private static final int COLOR_BLOCK_FOREGROUND = 0xff000000;
 
+    /**
+     * The fraction of the original color kept in the colors of dimmed blocks, with the rest taken
+     * from the background color
+     */
+    private static final float DIM_FRACTION = 0.25f;
+
     /**
      * Default color values
      */
     private static final int COLOR_DEFAULT_FOREGROUND = 0xff000000;
     private static final int COLOR_DEFAULT_BACKGROUND = 0xffffffff;
 
+    /**
+     * The fraction of the maximum heap to use for the tile cache
+     */
+    private static final int TILE_CACHE_HEAP_FRACTION = 8;
+
+    /**
+     * The headers for the rows of the lanthanides and actinides placeholders
+     */
+    private static final String HEADER_LANTHANIDES = "57-71";
+    private static final String HEADER_ACTINIDES = "89-103";
+
+    /**
+     * Block backgrounds are drawn individually instead of in color batches when the clip area is
+     * less than the visible area divided by this value. Only software canvases have a clip this
+     * small, since a hardware accelerated View is always recorded with its full bounds as the clip.
+     */
+    private static final int PARTIAL_CLIP_DIVISOR = 4;
+
+    /**
+     * Levels of detail for the text on the blocks: the symbol only, the symbol with the number and
+     * subtext, and all of those along with the name, electron configuration, and extra values
+     */
+    private static final int DETAIL_SYMBOL = 0;
+    private static final int DETAIL_STANDARD = 1;
+    private static final int DETAIL_FULL = 2;
+
+    /**
+     * The block sizes in dp at which each level of detail above DETAIL_SYMBOL is entered, and the
+     * smaller sizes at which it is left, so that small changes in zoom near a threshold do not
+     * switch back and forth
+     */
+    private static final int[] DETAIL_ENTER_SIZES = {32, 112};
+    private static final int[] DETAIL_EXIT_SIZES = {28, 96};
+
+    /**
+     * The values shown below the subtext at the highest level of detail, in order of preference,
+     * skipping the value already shown as the subtext
+     */
+    private static final int[] DETAIL_VALUES = {
+            Settings.SUBTEXT_WEIGHT, Settings.SUBTEXT_NEGATIVITY, Settings.SUBTEXT_DENSITY
+    };
+
+    /**
+     * The number of extra values shown at the highest level of detail
+     */
+    private static final int DETAIL_VALUE_COUNT = 2;
+
+    /**
+     * The position of the first line of text below the symbol at the highest level of detail,
+     * and the spacing between lines, as fractions of the block size
+     */
+    private static final float DETAIL_LINE_TOP = 0.45f;
+    private static final float DETAIL_LINE_SPACING = 0.11f;
+
     /**
      * Callback interface for events.
      */
@@ -102,12 +168,20 @@ public class PeriodicTableView extends View {
          */
         void onItemClick(@NonNull PeriodicTableBlock item);
 
+        /**
+         * Called when an item in the color legend is clicked.
+         *
+         * @param item The category or block ordinal of the legend item, depending on the color
+         *             scheme
+         */
+        void onLegendItemClick(int item);
+
         /**
          * Called when a zoom operation has completed.
          *
-         * @param periodicTableView The PeriodicTableView
+         * @param periodicTable The PeriodicTable that was zoomed
          */
-        void onZoomEnd(@NonNull PeriodicTableView periodicTableView);
+        void onZoomEnd(@NonNull PeriodicTable periodicTable);
     }
 
     /**
@@ -139,6 +213,26 @@ public class PeriodicTableView extends View {
      */
     private int mBlockSize;
 
+    /**
+     * The current level of detail, one of the DETAIL_ constants
+     */
+    private int mDetailLevel = DETAIL_STANDARD;
+
+    /**
+     * The block sizes in pixels at which each level of detail is entered and left
+     */
+    @NonNull
+    private final int[] mDetailEnterSizes = new int[DETAIL_ENTER_SIZES.length];
+    @NonNull
+    private final int[] mDetailExitSizes = new int[DETAIL_EXIT_SIZES.length];
+
+    /**
+     * The name, electron configuration, and extra values for each element at the highest level of
+     * detail, indexed by atomic number minus one, or null if they have not been loaded
+     */
+    @Nullable
+    private String[][] mDetailTexts;
+
     /**
      * Amount of space around the table
      */
@@ -150,6 +244,30 @@ public class PeriodicTableView extends View {
     private int mNumRows;
     private int mNumCols;
 
+    /**
+     * The text of the row and column headers, indexed by row or column number minus one
+     */
+    @NonNull
+    private String[] mHeaders = new String[0];
+
+    /**
+     * Grid index of the blocks, indexed by (row - 1) * mNumCols + (col - 1), with null for empty
+     * cells
+     */
+    @NonNull
+    private PeriodicTableBlock[] mBlockGrid = new PeriodicTableBlock[0];
+
+    /**
+     * The set of highlighted elements, or null if all blocks are shown normally
+     */
+    @Nullable
+    private ElementSet mHighlight;
+
+    /**
+     * The color of the text on dimmed blocks
+     */
+    private int mDimTextColor;
+
     /**
      * Paint for the table background
      */
@@ -162,6 +280,32 @@ public class PeriodicTableView extends View {
     @NonNull
     private final Paint mBlockPaint = new Paint();
 
+    /**
+     * The block backgrounds grouped by color
+     */
+    @NonNull
+    private final PeriodicTableBatches mBatches = new PeriodicTableBatches();
+
+    /**
+     * Cache of the rendered block labels
+     */
+    @NonNull
+    private final PeriodicTableTextCache mTextCache =
+            new PeriodicTableTextCache(new PeriodicTableTextCache.CellRenderer() {
+                @Override
+                public void renderCell(@NonNull Canvas canvas, int index, @NonNull Rect cell,
+                                       int cellSize) {
+                    setBlockTextSize(cellSize);
+                    drawBlockText(canvas, mPeriodicTableBlocks.get(index), cell.left, cell.top,
+                            cell.top + cellSize - 1, cellSize);
+                }
+            });
+
+    /**
+     * The block size the block text paints are sized for
+     */
+    private int mBlockTextSize;
+
     /**
      * Paint for row and column headers
      */
@@ -204,6 +348,23 @@ public class PeriodicTableView extends View {
     @NonNull
     private final Rect mRect = new Rect();
 
+    /**
+     * The clip bounds of the Canvas being drawn, limited to the visible area
+     */
+    @NonNull
+    private final Rect mClipRect = new Rect();
+
+    /**
+     * The area to be redrawn after a change to the selection or highlight
+     */
+    @NonNull
+    private final Rect mDirtyRect = new Rect();
+
+    /**
+     * The number of draw operations issued for the last frame
+     */
+    private int mFrameOps;
+
     /**
      * The currently selected block
      */
@@ -253,6 +414,48 @@ public class PeriodicTableView extends View {
      */
     private float mCurrentZoom = 1f;
 
+    /**
+     * Whether a scale gesture is in progress
+     */
+    private boolean mScaling;
+
+    /**
+     * Snapshot of the content taken when a zoom starts, which is scaled in place of drawing the
+     * table until the zoom ends
+     */
+    @Nullable
+    private Bitmap mSnapshot;
+
+    /**
+     * Whether the snapshot is drawn in place of the table
+     */
+    private boolean mSnapshotActive;
+
+    /**
+     * The block size and the position of the content when the snapshot was taken
+     */
+    private int mSnapshotBlockSize;
+    private int mSnapshotX;
+    private int mSnapshotY;
+
+    /**
+     * Paint used to draw the snapshot, with filtering for scaling
+     */
+    @NonNull
+    private final Paint mSnapshotPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * Matrix used to transform the snapshot to the current zoom level
+     */
+    @NonNull
+    private final Matrix mSnapshotMatrix = new Matrix();
+
+    /**
+     * The cache of rendered tiles, or null if the tile cache is disabled
+     */
+    @Nullable
+    private PeriodicTableTileCache mTileCache;
+
     /**
      * Handler for programmatic scrolling and flings
      */
@@ -308,17 +511,24 @@ public class PeriodicTableView extends View {
         mNumberPaint.setSubpixelText(true);
         mSmallTextPaint.setSubpixelText(true);
 
+        mLegend = new PeriodicTableLegend(context);
+
+        final float density = getResources().getDisplayMetrics().density;
+        for(int i = 0; i < mDetailEnterSizes.length; i++) {
+            mDetailEnterSizes[i] = (int)(DETAIL_ENTER_SIZES[i] * density);
+            mDetailExitSizes[i] = (int)(DETAIL_EXIT_SIZES[i] * density);
+        }
+
         final TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.PeriodicTableView,
                 defStyle, 0);
 
         mTitle = a.getText(R.styleable.PeriodicTableView_title);
         setFgColor(a.getColor(R.styleable.PeriodicTableView_fgColor, COLOR_DEFAULT_FOREGROUND));
         setBgColor(a.getColor(R.styleable.PeriodicTableView_bgColor, COLOR_DEFAULT_BACKGROUND));
+        setTileCacheEnabled(a.getBoolean(R.styleable.PeriodicTableView_tileCache, false));
 
         a.recycle();
 
-        mLegend = new PeriodicTableLegend(context);
-
         mScaleGestureDetector = new ScaleGestureDetector(context, getOnScaleGestureListener());
         mGestureDetector = new GestureDetector(context, getOnGestureListener());
 
@@ -352,6 +562,8 @@ public class PeriodicTableView extends View {
                 clearSelection();
                 mScaleRect.set(mContentRect);
                 mStartSpan = detector.getCurrentSpan();
+                mScaling = true;
+                beginSnapshot();
 
                 return true;
             }
@@ -368,6 +580,11 @@ public class PeriodicTableView extends View {
 
             @Override
             public void onScaleEnd(ScaleGestureDetector detector) {
+                mScaling = false;
+                if(mZoomer.isFinished()) {
+                    endSnapshot();
+                }
+                ViewCompat.postInvalidateOnAnimation(PeriodicTableView.this);
                 if(mPeriodicTableListener != null) {
                     mPeriodicTableListener.onZoomEnd(PeriodicTableView.this);
                 }
@@ -388,23 +605,21 @@ public class PeriodicTableView extends View {
                 clearEdgeEffects();
                 mScroller.forceFinished(true);
 
-                mBlockSelected = null;
-                for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-                    findBlockPosition(block);
-                    if(mRect.contains((int)e.getX(), (int)e.getY())) {
-                        mBlockSelected = block;
-                        break;
-                    }
-                }
-
-                ViewCompat.postInvalidateOnAnimation(PeriodicTableView.this);
+                setSelectedBlock(findBlockAt((int)e.getX(), (int)e.getY()));
                 return true;
             }
 
             @Override
             public boolean onSingleTapUp(MotionEvent e) {
-                if(mPeriodicTableListener != null && mBlockSelected != null) {
-                    mPeriodicTableListener.onItemClick(mBlockSelected);
+                if(mPeriodicTableListener != null) {
+                    if(mBlockSelected != null) {
+                        mPeriodicTableListener.onItemClick(mBlockSelected);
+                    } else {
+                        final int item = findLegendItemAt((int)e.getX(), (int)e.getY());
+                        if(item >= 0) {
+                            mPeriodicTableListener.onLegendItemClick(item);
+                        }
+                    }
                 }
                 clearSelection();
                 return true;
@@ -427,6 +642,7 @@ public class PeriodicTableView extends View {
                     offsetY = Math.max(offsetY, -Math.max(0, mContentRect.bottom - getHeight()));
                 }
                 mContentRect.offset(offsetX, offsetY);
+                ViewCompat.postInvalidateOnAnimation(PeriodicTableView.this);
 
                 if(mContentRect.height() > getHeight()) {
                     if(distanceY < 0 && mContentRect.top == 0) {
@@ -478,19 +694,22 @@ public class PeriodicTableView extends View {
     }
 
     /**
-     * Set the foreground color. This is the color of all text outside of the blocks and legend.
+     * Set the foreground color. This is the color of all text outside of the blocks and legend
+     * boxes.
      *
      * @param color The color value
      */
     public void setFgColor(int color) {
         mTitlePaint.setColor(color);
         mHeaderPaint.setColor(color);
+        mLegend.setTextColor(color);
+        invalidateTiles();
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
     /**
      * Get the current foreground color. This is the color of all text outside of the blocks and
-     * legend.
+     * legend boxes.
      *
      * @return The color value
      */
@@ -505,6 +724,9 @@ public class PeriodicTableView extends View {
      */
     public void setBgColor(int color) {
         mBgPaint.setColor(color);
+        updateDimColors();
+        mBatches.invalidate();
+        invalidateTiles();
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
@@ -523,6 +745,7 @@ public class PeriodicTableView extends View {
      *
      * @param blocks The list of blocks
      */
+    @Override
     public void setBlocks(@NonNull List<PeriodicTableBlock> blocks) {
         mPeriodicTableBlocks.clear();
         mPeriodicTableBlocks.addAll(blocks);
@@ -530,34 +753,52 @@ public class PeriodicTableView extends View {
         int numRows = 0;
         int numCols = 0;
 
+        final int[] colors = ElementUtils.getElementColors(PreferenceUtils.getSettings());
         for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-            if(block.element.period > numRows) {
-                numRows = block.element.period;
+            final int period = block.element.getPeriod();
+            final int group = block.element.getGroup();
+            if(period > numRows) {
+                numRows = period;
             }
-            if(block.element.group > numCols) {
-                numCols = block.element.group;
+            if(group > numCols) {
+                numCols = group;
             }
-            if(block.element.group == 0) {
-                if(block.element.period == 6) {
+            if(group == 0) {
+                if(period == 6) {
                     block.row = 8;
                     block.col = block.element.number - 54;
-                } else if(block.element.period == 7) {
+                } else if(period == 7) {
                     block.row = 9;
                     block.col = block.element.number - 86;
                 }
             } else {
-                block.row = block.element.period;
-                block.col = block.element.group;
+                block.row = period;
+                block.col = group;
             }
 
-            block.color = ElementUtils.getElementColor(block.element);
+            block.color = colors[block.element.number - 1];
         }
         numRows += 2;
+        updateDimColors();
+        mBatches.invalidate();
+        mTextCache.invalidate();
+        mDetailTexts = null;
 
         mNumRows = numRows;
         mNumCols = numCols;
 
+        mHeaders = new String[Math.max(numCols, numRows - 2)];
+        for(int i = 0; i < mHeaders.length; i++) {
+            mHeaders[i] = String.valueOf(i + 1);
+        }
+
+        mBlockGrid = new PeriodicTableBlock[numRows * numCols];
+        for(PeriodicTableBlock block : mPeriodicTableBlocks) {
+            mBlockGrid[(block.row - 1) * numCols + block.col - 1] = block;
+        }
+
         measureCanvas();
+        invalidateTiles();
         if(mAccessibilityDelegate != null) {
             mAccessibilityDelegate.loadLabels();
             mAccessibilityDelegate.invalidateRoot();
@@ -565,16 +806,205 @@ public class PeriodicTableView extends View {
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
+    /**
+     * Replace the subtext of every block without changing the layout.
+     *
+     * @param subtexts The subtext for each element, indexed by atomic number minus one
+     */
+    @Override
+    public void setSubtexts(@NonNull String[] subtexts) {
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            block.subtext = subtexts[block.element.number - 1];
+        }
+        mTextCache.invalidate();
+        mDetailTexts = null;
+
+        invalidateTiles();
+        if(mAccessibilityDelegate != null) {
+            mAccessibilityDelegate.loadLabels();
+            mAccessibilityDelegate.invalidateRoot();
+        }
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Replace the background color of every block without changing the layout.
+     *
+     * @param colors The color for each element, indexed by atomic number minus one
+     */
+    @Override
+    public void setBlockColors(@NonNull int[] colors) {
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            block.color = colors[block.element.number - 1];
+        }
+        updateDimColors();
+        mBatches.invalidate();
+
+        invalidateTiles();
+        if(mAccessibilityDelegate != null) {
+            mAccessibilityDelegate.loadLabels();
+            mAccessibilityDelegate.invalidateRoot();
+        }
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Highlight a set of elements by dimming all the other blocks. This only changes how the
+     * blocks are drawn, so it is cheap enough to call on every change to a search query.
+     *
+     * @param highlight The set of elements to highlight, or null to show all blocks normally
+     */
+    @Override
+    public void setHighlight(@Nullable ElementSet highlight) {
+        if(highlight == null ? mHighlight == null : highlight.equals(mHighlight)) {
+            return;
+        }
+        final ElementSet oldHighlight = mHighlight;
+        mHighlight = highlight == null ? null : new ElementSet(highlight);
+        mBatches.invalidate();
+
+        mDirtyRect.setEmpty();
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            final int index = block.element.number - 1;
+            final boolean wasDim = oldHighlight != null && !oldHighlight.contains(index);
+            final boolean dim = highlight != null && !highlight.contains(index);
+            if(dim != wasDim) {
+                findBlockPosition(block, 0, 0);
+                mDirtyRect.union(mRect.left, mRect.top, mRect.right + 1, mRect.bottom + 1);
+            }
+        }
+        if(mDirtyRect.isEmpty()) {
+            return;
+        }
+
+        if(mTileCache != null) {
+            mTileCache.invalidate(mBlockSize, mDirtyRect);
+        }
+        mDirtyRect.offset(getContentX(), getContentY());
+        invalidateDirtyRect();
+    }
+
+    /**
+     * Get the set of highlighted elements.
+     *
+     * @return A copy of the set of highlighted elements, or null if no elements are highlighted
+     */
+    @Nullable
+    public ElementSet getHighlight() {
+        return mHighlight == null ? null : new ElementSet(mHighlight);
+    }
+
+    /**
+     * Compute the colors used for dimmed blocks from the block colors and the background color.
+     */
+    private void updateDimColors() {
+        final int bgColor = mBgPaint.getColor();
+        mDimTextColor = blendColor(COLOR_BLOCK_FOREGROUND, bgColor);
+
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            block.dimColor = blendColor(block.color, bgColor);
+        }
+    }
+
+    /**
+     * Blend a color with a background color to produce the dimmed version of the color.
+     *
+     * @param color   The color
+     * @param bgColor The background color
+     * @return The opaque dimmed color
+     */
+    private static int blendColor(int color, int bgColor) {
+        int result = 0xff000000;
+        for(int shift = 0; shift <= 16; shift += 8) {
+            final int fg = (color >> shift) & 0xff;
+            final int bg = (bgColor >> shift) & 0xff;
+            result |= Math.round(bg + (fg - bg) * DIM_FRACTION) << shift;
+        }
+        return result;
+    }
+
+    /**
+     * Set the color of the text drawn on blocks.
+     *
+     * @param color The color value
+     */
+    private void setBlockTextColor(int color) {
+        mSymbolPaint.setColor(color);
+        mNumberPaint.setColor(color);
+        mSmallTextPaint.setColor(color);
+    }
+
+    @Override
     public void invalidateLegend() {
         mLegend.invalidate(getContext());
+        if(mTileCache != null) {
+            findLegendPosition(0, 0);
+            mTileCache.invalidate(mBlockSize, mRect);
+        }
+        ViewCompat.postInvalidateOnAnimation(this);
+    }
+
+    /**
+     * Enable or disable the tile cache. When enabled, the table is rendered into cached bitmap
+     * tiles for each block size so that scrolling only needs to draw the tiles, and zooming scales
+     * the nearest cached level until the zoom is complete.
+     *
+     * @param enabled Whether to use the tile cache
+     */
+    public void setTileCacheEnabled(boolean enabled) {
+        if(enabled == (mTileCache != null)) {
+            return;
+        }
+        if(enabled) {
+            final int maxBytes =
+                    (int)(Runtime.getRuntime().maxMemory() / TILE_CACHE_HEAP_FRACTION);
+            mTileCache = new PeriodicTableTileCache(new PeriodicTableTileCache.TileRenderer() {
+                @Override
+                public void renderTile(@NonNull Canvas canvas, int left, int top) {
+                    final int size = PeriodicTableTileCache.TILE_SIZE;
+                    canvas.drawRect(0, 0, size, size, mBgPaint);
+                    drawTable(canvas, -left, -top, size, size);
+                }
+            }, maxBytes);
+        } else {
+            mTileCache.release();
+            mTileCache = null;
+        }
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
+    /**
+     * Check whether the tile cache is enabled.
+     *
+     * @return Whether the tile cache is enabled
+     */
+    public boolean isTileCacheEnabled() {
+        return mTileCache != null;
+    }
+
+    /**
+     * Remove all rendered tiles from the tile cache, if it is enabled.
+     */
+    private void invalidateTiles() {
+        if(mTileCache != null) {
+            mTileCache.invalidateAll();
+        }
+    }
+
     /**
      * Set the PeriodicTableListener.
      *
      * @param listener The PeriodicTableListener
      */
+    @Override
     public void setPeriodicTableListener(@Nullable PeriodicTableListener listener) {
         mPeriodicTableListener = listener;
     }
@@ -605,6 +1035,7 @@ public class PeriodicTableView extends View {
      */
     public void setTitle(@NonNull CharSequence title) {
         mTitle = title;
+        invalidateTiles();
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
@@ -622,8 +1053,64 @@ public class PeriodicTableView extends View {
      * Clear the selected block.
      */
     public void clearSelection() {
-        mBlockSelected = null;
-        ViewCompat.postInvalidateOnAnimation(this);
+        setSelectedBlock(null);
+    }
+
+    /**
+     * Change the selected block, redrawing only the areas covered by the old and new selection
+     * indicators.
+     *
+     * @param block The block to select, or null to clear the selection
+     */
+    private void setSelectedBlock(@Nullable PeriodicTableBlock block) {
+        if(block == mBlockSelected) {
+            return;
+        }
+        mDirtyRect.setEmpty();
+        if(mBlockSelected != null) {
+            addSelectionBounds(mBlockSelected);
+        }
+        if(block != null) {
+            addSelectionBounds(block);
+        }
+        mBlockSelected = block;
+        invalidateDirtyRect();
+    }
+
+    /**
+     * Add the area covered by the selection indicator on a block to the dirty rectangle.
+     *
+     * @param block The block
+     */
+    private void addSelectionBounds(@NonNull PeriodicTableBlock block) {
+        findBlockPosition(block);
+        final int outset = mBlockSize / 20 + 1;
+        mDirtyRect.union(mRect.left - outset, mRect.top - outset, mRect.right + outset + 1,
+                mRect.bottom + outset + 1);
+    }
+
+    /**
+     * Redraw the area in the dirty rectangle. This only reduces the work of drawing when the View
+     * is drawn into a software Canvas, such as in a software layer or by the render thread of
+     * PeriodicTableSurfaceView. With hardware acceleration, the dirty rectangle is ignored and
+     * onDraw records the whole View, which the clip culling cannot reduce.
+     */
+    private void invalidateDirtyRect() {
+        if(!mDirtyRect.isEmpty()) {
+            ViewCompat.postInvalidateOnAnimation(this, mDirtyRect.left, mDirtyRect.top,
+                    mDirtyRect.right, mDirtyRect.bottom);
+        }
+    }
+
+    /**
+     * Get the number of draw operations issued for the last frame, including those used to
+     * render tiles and snapshots during the frame.
+     *
+     * @return The number of draw operations
+     */
+    @VisibleForTesting
+    int getFrameOpCount() {
+        return mFrameOps;
     }
 
     /**
@@ -631,6 +1118,7 @@ public class PeriodicTableView extends View {
      *
      * @return Whether the table can be zoomed in
      */
+    @Override
     public boolean canZoomIn() {
         return mCurrentZoom < MAX_ZOOM;
     }
@@ -640,6 +1128,7 @@ public class PeriodicTableView extends View {
      *
      * @return Whether the table can be zoomed out
      */
+    @Override
     public boolean canZoomOut() {
         return mCurrentZoom > 1f;
     }
@@ -653,6 +1142,9 @@ public class PeriodicTableView extends View {
         mZoomer.forceFinished();
         mScaleRect.set(mContentRect);
         mScaleFocalPoint.set(0.5f, 0.5f);
+        if(!mSnapshotActive) {
+            beginSnapshot();
+        }
         mZoomer.startZoom(mCurrentZoom, zoomLevel);
         ViewCompat.postInvalidateOnAnimation(this);
     }
@@ -660,6 +1152,7 @@ public class PeriodicTableView extends View {
     /**
      * Zoom in one step.
      */
+    @Override
     public void zoomIn() {
         zoomTo(mCurrentZoom + mCurrentZoom * ZOOM_STEP);
     }
@@ -667,31 +1160,49 @@ public class PeriodicTableView extends View {
     /**
      * Zoom out one step.
      */
+    @Override
     public void zoomOut() {
         zoomTo(mCurrentZoom - mCurrentZoom * ZOOM_STEP);
     }
 
     /**
-     * Determine if a block is within the visible region. This is used to avoid useless drawing
-     * operations.
+     * Get the horizontal position of the table content within the View.
      *
-     * @param rect The block boundaries
-     * @return True if the block is visible
+     * @return The position of the left edge of the content
      */
-    private boolean isBlockVisible(@NonNull Rect rect) {
-        return rect.intersects(0, 0, getWidth(), getHeight());
+    private int getContentX() {
+        return mContentRect.left + mContentOffset.x;
     }
 
     /**
-     * Calculate the position of the specified block and store it in the shared rectangle.
+     * Get the vertical position of the table content within the View.
+     *
+     * @return The position of the top edge of the content
+     */
+    private int getContentY() {
+        return mContentRect.top + mContentOffset.y;
+    }
+
+    /**
+     * Calculate the position of the specified block within the View and store it in the shared
+     * rectangle.
      *
      * @param block The block
      */
     private void findBlockPosition(@NonNull PeriodicTableBlock block) {
-        mRect.right =
-                (block.col * mBlockSize + mContentRect.left + mContentOffset.x + mPadding) - 1;
-        mRect.bottom =
-                (block.row * mBlockSize + mContentRect.top + mContentOffset.y + mPadding) - 1;
+        findBlockPosition(block, getContentX(), getContentY());
+    }
+
+    /**
+     * Calculate the position of the specified block and store it in the shared rectangle.
+     *
+     * @param block   The block
+     * @param originX The horizontal position of the content
+     * @param originY The vertical position of the content
+     */
+    private void findBlockPosition(@NonNull PeriodicTableBlock block, int originX, int originY) {
+        mRect.right = (block.col * mBlockSize + originX + mPadding) - 1;
+        mRect.bottom = (block.row * mBlockSize + originY + mPadding) - 1;
         mRect.left = mRect.right - mBlockSize + 1;
         mRect.top = mRect.bottom - mBlockSize + 1;
 
@@ -703,49 +1214,459 @@ public class PeriodicTableView extends View {
     }
 
     /**
-     * Draw the headers and placeholders on the supplied Canvas.
+     * Find the block at the specified point by transforming the point to a cell of the grid
+     * index.
      *
-     * @param canvas The Canvas
+     * @param x The horizontal position within the View
+     * @param y The vertical position within the View
+     * @return The block at the point, or null if there is no block at the point
      */
-    private void writeHeaders(@NonNull Canvas canvas) {
-        mHeaderPaint.setTextSize(mBlockSize / 4f);
+    @Nullable
+    private PeriodicTableBlock findBlockAt(int x, int y) {
+        if(mBlockSize <= 0) {
+            return null;
+        }
+
+        final int cellX = x - getContentX() - mPadding;
+        int cellY = y - getContentY() - mPadding;
+        final int mainHeight = (mNumRows - 2) * mBlockSize;
+        if(cellY >= mainHeight) {
+            // the lanthanide and actinide rows are shifted down by half the padding
+            cellY -= mPadding / 2;
+            if(cellY < mainHeight) {
+                return null;
+            }
+        }
+        if(cellX < 0 || cellY < 0) {
+            return null;
+        }
+
+        // the last pixel of each cell is the gap between blocks
+        if(cellX % mBlockSize == mBlockSize - 1 || cellY % mBlockSize == mBlockSize - 1) {
+            return null;
+        }
+
+        final int col = cellX / mBlockSize;
+        final int row = cellY / mBlockSize;
+        if(col >= mNumCols || row >= mNumRows) {
+            return null;
+        }
+        return mBlockGrid[row * mNumCols + col];
+    }
+
+    /**
+     * Calculate the position of the legend and store it in the shared rectangle.
+     *
+     * @param originX The horizontal position of the content
+     * @param originY The vertical position of the content
+     */
+    private void findLegendPosition(int originX, int originY) {
+        mRect.top = (int)(mBlockSize * 1.3) + originY;
+        mRect.left = mBlockSize * 3 + originX;
+        mRect.bottom = mRect.top + mBlockSize * 2;
+        mRect.right = mRect.left + mBlockSize * 9;
+    }
+
+    /**
+     * Find the color legend item at a point on the View.
+     *
+     * @param x The horizontal position of the point
+     * @param y The vertical position of the point
+     * @return The category or block ordinal of the item, or -1 if there is no item at the point
+     */
+    private int findLegendItemAt(int x, int y) {
+        findLegendPosition(getContentX(), getContentY());
+        return mLegend.findItemAt(mRect, x, y);
+    }
 
+    /**
+     * Draw the headers and placeholders on the supplied Canvas.
+     *
+     * @param canvas  The Canvas
+     * @param originX The horizontal position of the content
+     * @param originY The vertical position of the content
+     */
+    private void writeHeaders(@NonNull Canvas canvas, int originX, int originY) {
+        final float halfWidth = mBlockSize / 2f;
+        final float textSize = mHeaderPaint.getTextSize();
         for(int i = 1; i <= mNumCols; i++) {
-            canvas.drawText(String.valueOf(i),
-                    mBlockSize * i + mContentRect.left + mContentOffset.x,
-                    mPadding / 2f + mContentRect.top + mContentOffset.y,
-                    mHeaderPaint);
+            writeText(canvas, mHeaders[i - 1], mBlockSize * i + originX,
+                    mPadding / 2f + originY, halfWidth, textSize, mHeaderPaint);
         }
         for(int i = 1; i <= mNumRows - 2; i++) {
-            canvas.drawText(String.valueOf(i),
-                    mPadding / 2f + mContentRect.left + mContentOffset.x,
-                    mBlockSize * i + mContentRect.top + mContentOffset.y,
-                    mHeaderPaint);
+            writeText(canvas, mHeaders[i - 1], mPadding / 2f + originX,
+                    mBlockSize * i + originY, halfWidth, textSize, mHeaderPaint);
         }
 
-        canvas.drawText("57-71",
-                mBlockSize * 3 + mContentRect.left + mContentOffset.x,
-                mBlockSize * 6 + mContentRect.top + mContentOffset.y + mHeaderPaint.getTextSize()
-                        / 2,
-                mHeaderPaint);
+        writeText(canvas, HEADER_LANTHANIDES, mBlockSize * 3 + originX,
+                mBlockSize * 6 + originY + textSize / 2, halfWidth, textSize, mHeaderPaint);
 
-        canvas.drawText("89-103",
-                mBlockSize * 3 + mContentRect.left + mContentOffset.x,
-                mBlockSize * 7 + mContentRect.top + mContentOffset.y + mHeaderPaint.getTextSize()
-                        / 2,
-                mHeaderPaint);
+        writeText(canvas, HEADER_ACTINIDES, mBlockSize * 3 + originX,
+                mBlockSize * 7 + originY + textSize / 2, halfWidth, textSize, mHeaderPaint);
+    }
+
+    /**
+     * Draw a line of centered text on the supplied Canvas if it may intersect the clip bounds.
+     *
+     * @param canvas    The Canvas
+     * @param text      The text
+     * @param x         The horizontal center of the text
+     * @param y         The baseline of the text
+     * @param halfWidth The maximum distance of the text from its center
+     * @param textSize  The size of the text
+     * @param paint     The Paint
+     */
+    private void writeText(@NonNull Canvas canvas, @NonNull CharSequence text, float x, float y,
+                           float halfWidth, float textSize, @NonNull Paint paint) {
+        if(x + halfWidth <= mClipRect.left || x - halfWidth >= mClipRect.right
+                || y + textSize / 2 <= mClipRect.top || y - textSize >= mClipRect.bottom) {
+            return;
+        }
+        canvas.drawText(text, 0, text.length(), x, y, paint);
+        mFrameOps++;
     }
 
     /**
      * Draw the title on the supplied Canvas.
      *
+     * @param canvas  The Canvas
+     * @param originX The horizontal position of the content
+     * @param originY The vertical position of the content
+     */
+    private void writeTitle(@NonNull Canvas canvas, int originX, int originY) {
+        writeText(canvas, mTitle, mBlockSize * mNumCols / 2f + originX, mBlockSize + originY,
+                mBlockSize * mNumCols / 2f, mTitlePaint.getTextSize(), mTitlePaint);
+    }
+
+    /**
+     * Draw the legend, headers, title, and blocks on the supplied Canvas at the current block
+     * size. Only the items intersecting the clip bounds of the Canvas are drawn.
+     *
+     * @param canvas  The Canvas
+     * @param originX The horizontal position of the content within the Canvas
+     * @param originY The vertical position of the content within the Canvas
+     * @param width   The width of the visible area of the Canvas
+     * @param height  The height of the visible area of the Canvas
+     */
+    private void drawTable(@NonNull Canvas canvas, int originX, int originY, int width,
+                           int height) {
+        if(!canvas.getClipBounds(mClipRect) || !mClipRect.intersect(0, 0, width, height)) {
+            return;
+        }
+
+        findLegendPosition(originX, originY);
+        if(Rect.intersects(mRect, mClipRect)) {
+            mLegend.drawLegend(canvas, mRect);
+            mFrameOps++;
+        }
+
+        writeHeaders(canvas, originX, originY);
+        writeTitle(canvas, originX, originY);
+
+        final ElementSet highlight = mHighlight;
+        if(mClipRect.width() * mClipRect.height() < width * height / PARTIAL_CLIP_DIVISOR) {
+            drawClippedBlockBackgrounds(canvas, originX, originY, highlight);
+        } else {
+            drawBlockBackgrounds(canvas, originX, originY, highlight);
+        }
+
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        if(mDetailLevel == DETAIL_FULL && mDetailTexts == null) {
+            loadDetailTexts();
+        }
+        final boolean cached = mTextCache.prepare(mBlockSize, blocks.size());
+        if(!cached) {
+            setBlockTextSize(mBlockSize);
+        }
+
+        boolean dimText = false;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            findBlockPosition(block, originX, originY);
+
+            if(!Rect.intersects(mRect, mClipRect)) {
+                continue;
+            }
+
+            final boolean dim = highlight != null && !highlight.contains(block.element.number - 1);
+            if(cached) {
+                mTextCache.drawCell(canvas, i, mRect.left, mRect.top, mBlockSize,
+                        dim ? mDimTextColor : COLOR_BLOCK_FOREGROUND);
+                mFrameOps++;
+                continue;
+            }
+
+            if(dim != dimText) {
+                setBlockTextColor(dim ? mDimTextColor : COLOR_BLOCK_FOREGROUND);
+                dimText = dim;
+            }
+            drawBlockText(canvas, block, mRect.left, mRect.top, mRect.bottom, mBlockSize);
+        }
+
+        if(dimText) {
+            setBlockTextColor(COLOR_BLOCK_FOREGROUND);
+        }
+    }
+
+    /**
+     * Draw the text of a block for the current level of detail using the block text paints, which
+     * must be sized for the block size.
+     *
+     * @param canvas    The Canvas
+     * @param block     The block
+     * @param left      The left edge of the block
+     * @param top       The top edge of the block
+     * @param bottom    The bottom edge of the block
+     * @param blockSize The block size
+     */
+    private void drawBlockText(@NonNull Canvas canvas, @NonNull PeriodicTableBlock block,
+                               int left, int top, int bottom, int blockSize) {
+        final float centerX = left + blockSize / 2f;
+        if(mDetailLevel == DETAIL_SYMBOL) {
+            canvas.drawText(block.element.symbol, centerX, bottom - blockSize * 0.3f,
+                    mSymbolPaint);
+            mFrameOps++;
+            return;
+        }
+
+        canvas.drawText(block.number, left + blockSize / 20f,
+                top + mNumberPaint.getTextSize(), mNumberPaint);
+
+        if(mDetailLevel == DETAIL_STANDARD || mDetailTexts == null) {
+            canvas.drawText(block.element.symbol, centerX, bottom - (int)(blockSize / 2.8),
+                    mSymbolPaint);
+            canvas.drawText(block.subtext, centerX, bottom - blockSize / 20f, mSmallTextPaint);
+            mFrameOps += 3;
+            return;
+        }
+
+        canvas.drawText(block.element.symbol, centerX, top + blockSize * 0.32f, mSymbolPaint);
+
+        final String[] texts = mDetailTexts[block.element.number - 1];
+        float y = top + blockSize * DETAIL_LINE_TOP;
+        canvas.drawText(texts[0], centerX, y, mSmallTextPaint);
+        y += blockSize * DETAIL_LINE_SPACING;
+        canvas.drawText(texts[1], centerX, y, mSmallTextPaint);
+        y += blockSize * DETAIL_LINE_SPACING;
+        canvas.drawText(block.subtext, centerX, y, mSmallTextPaint);
+        for(int i = 2; i < texts.length; i++) {
+            y += blockSize * DETAIL_LINE_SPACING;
+            canvas.drawText(texts[i], centerX, y, mSmallTextPaint);
+        }
+        mFrameOps += 3 + texts.length;
+    }
+
+    /**
+     * Build the name, electron configuration, and extra values of each block for the highest
+     * level of detail, so that drawing the blocks does not need to format any values.
+     */
+    private void loadDetailTexts() {
+        final Settings settings = PreferenceUtils.getSettings();
+        final Resources res = getResources();
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+
+        int count = 0;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            count = Math.max(count, blocks.get(i).element.number);
+        }
+
+        final String[][] detailTexts = new String[count][];
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final Element element = blocks.get(i).element;
+            final String[] texts = new String[2 + DETAIL_VALUE_COUNT];
+            texts[0] = res.getString(ElementUtils.getElementName(element.number));
+            texts[1] = SubtextUtils.getConfiguration(element);
+            int next = 2;
+            for(int value : DETAIL_VALUES) {
+                if(next == texts.length) {
+                    break;
+                }
+                if(value != settings.subtextValue) {
+                    texts[next++] = SubtextUtils.getSubtextWithUnit(element, value,
+                            settings.tempUnit);
+                }
+            }
+            detailTexts[element.number - 1] = texts;
+        }
+        mDetailTexts = detailTexts;
+    }
+
+    /**
+     * Update the level of detail for the current block size. A level is entered when the block
+     * size reaches its enter size and is only left when the block size falls below its smaller
+     * exit size.
+     */
+    private void updateDetailLevel() {
+        int level = mDetailLevel;
+        while(level < DETAIL_FULL && mBlockSize >= mDetailEnterSizes[level]) {
+            level++;
+        }
+        while(level > DETAIL_SYMBOL && mBlockSize < mDetailExitSizes[level - 1]) {
+            level--;
+        }
+
+        if(level != mDetailLevel) {
+            mDetailLevel = level;
+            mBlockTextSize = 0;
+            mTextCache.invalidate();
+            invalidateTiles();
+        }
+    }
+
+    /**
+     * Draw the backgrounds of all the blocks on the supplied Canvas, building the color batches
+     * for the current block size if needed.
+     *
+     * @param canvas    The Canvas
+     * @param originX   The horizontal position of the content within the Canvas
+     * @param originY   The vertical position of the content within the Canvas
+     * @param highlight The set of highlighted elements, or null if all blocks are shown normally
+     */
+    private void drawBlockBackgrounds(@NonNull Canvas canvas, int originX, int originY,
+                                      @Nullable ElementSet highlight) {
+        if(!mBatches.isValid(mBlockSize)) {
+            mBatches.begin(mBlockSize);
+            final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+            for(int i = 0, size = blocks.size(); i < size; i++) {
+                final PeriodicTableBlock block = blocks.get(i);
+                findBlockPosition(block, 0, 0);
+                final boolean dim =
+                        highlight != null && !highlight.contains(block.element.number - 1);
+                mBatches.addBlock(mRect, dim ? block.dimColor : block.color);
+            }
+        }
+
+        final int save = canvas.save();
+        canvas.translate(originX, originY);
+        mFrameOps += mBatches.draw(canvas, mBlockPaint);
+        canvas.restoreToCount(save);
+    }
+
+    /**
+     * Draw the backgrounds of the blocks intersecting the clip bounds individually. This is used
+     * instead of the color batches when only a small area is being redrawn, such as after a
+     * change to the selection.
+     *
+     * @param canvas    The Canvas
+     * @param originX   The horizontal position of the content within the Canvas
+     * @param originY   The vertical position of the content within the Canvas
+     * @param highlight The set of highlighted elements, or null if all blocks are shown normally
+     */
+    private void drawClippedBlockBackgrounds(@NonNull Canvas canvas, int originX, int originY,
+                                             @Nullable ElementSet highlight) {
+        final List<PeriodicTableBlock> blocks = mPeriodicTableBlocks;
+        for(int i = 0, size = blocks.size(); i < size; i++) {
+            final PeriodicTableBlock block = blocks.get(i);
+            findBlockPosition(block, originX, originY);
+            if(!Rect.intersects(mRect, mClipRect)) {
+                continue;
+            }
+
+            final boolean dim = highlight != null && !highlight.contains(block.element.number - 1);
+            mBlockPaint.setColor(dim ? block.dimColor : block.color);
+            canvas.drawRect(mRect, mBlockPaint);
+            mFrameOps++;
+        }
+    }
+
+    /**
+     * Draw the table on the supplied Canvas using the tile cache. While zooming, the tiles of the
+     * nearest cached level are scaled to the current block size. Otherwise, the tiles for the
+     * current block size are drawn, rendering any that are missing.
+     *
      * @param canvas The Canvas
+     * @return False if the table could not be drawn from the cache
      */
-    private void writeTitle(@NonNull Canvas canvas) {
-        canvas.drawText(mTitle, 0, mTitle.length(),
-                mBlockSize * mNumCols / 2f + mContentRect.left + mContentOffset.x,
-                mBlockSize + mContentRect.top + mContentOffset.y,
-                mTitlePaint);
+    private boolean drawTiles(@NonNull Canvas canvas) {
+        if(mTileCache == null || mBlockSize <= 0) {
+            return false;
+        }
+
+        int level = mBlockSize;
+        if((mScaling || !mZoomer.isFinished()) && !mTileCache.hasLevel(level)) {
+            level = mTileCache.findNearestLevel(mBlockSize);
+            if(level <= 0) {
+                return false;
+            }
+        }
+
+        if(!canvas.getClipBounds(mClipRect) || !mClipRect.intersect(0, 0, getWidth(),
+                getHeight())) {
+            return true;
+        }
+        final boolean drawn = mTileCache.draw(canvas, level, mBlockSize / (float)level,
+                getContentX(), getContentY(), mClipRect, level * (mNumCols + 1),
+                level * (mNumRows + 1), level == mBlockSize);
+        mFrameOps += mTileCache.getDrawnTileCount();
+        return drawn;
+    }
+
+    /**
+     * Draw the background and the table at the current zoom level on the supplied Canvas, using
+     * the tile cache if it is enabled.
+     *
+     * @param canvas The Canvas
+     */
+    private void drawContent(@NonNull Canvas canvas) {
+        canvas.drawRect(0, 0, getWidth(), getHeight(), mBgPaint);
+        mFrameOps++;
+        if(!drawTiles(canvas)) {
+            // clear any tiles drawn before a missing tile was found
+            canvas.drawRect(0, 0, getWidth(), getHeight(), mBgPaint);
+            mFrameOps++;
+            drawTable(canvas, getContentX(), getContentY(), getWidth(), getHeight());
+        }
+    }
+
+    /**
+     * Capture the current content into the snapshot and draw the snapshot in place of the table
+     * until endSnapshot is called, so that zooming only needs to transform a bitmap.
+     */
+    private void beginSnapshot() {
+        final int width = getWidth();
+        final int height = getHeight();
+        if(width <= 0 || height <= 0 || mBlockSize <= 0) {
+            return;
+        }
+
+        if(mSnapshot == null || mSnapshot.getWidth() != width
+                || mSnapshot.getHeight() != height) {
+            mSnapshot = Bitmap.createBitmap(width, height, Bitmap.Config.RGB_565);
+        }
+        drawContent(new Canvas(mSnapshot));
+
+        mSnapshotBlockSize = mBlockSize;
+        mSnapshotX = getContentX();
+        mSnapshotY = getContentY();
+        mSnapshotActive = true;
+    }
+
+    /**
+     * Stop drawing the snapshot and redraw the table at full quality.
+     */
+    private void endSnapshot() {
+        if(mSnapshotActive) {
+            mSnapshotActive = false;
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * Draw the snapshot scaled and translated to match the current zoom level and position of the
+     * content.
+     *
+     * @param canvas   The Canvas
+     * @param snapshot The snapshot
+     */
+    private void drawSnapshot(@NonNull Canvas canvas, @NonNull Bitmap snapshot) {
+        canvas.drawRect(0, 0, getWidth(), getHeight(), mBgPaint);
+
+        final float scale = mBlockSize / (float)mSnapshotBlockSize;
+        mSnapshotMatrix.setTranslate(-mSnapshotX, -mSnapshotY);
+        mSnapshotMatrix.postScale(scale, scale);
+        mSnapshotMatrix.postTranslate(getContentX(), getContentY());
+        canvas.drawBitmap(snapshot, mSnapshotMatrix, mSnapshotPaint);
+        mFrameOps += 2;
     }
 
     /**
@@ -785,18 +1706,25 @@ public class PeriodicTableView extends View {
         }
 
         if(invalidate) {
+            mFrameOps++;
             ViewCompat.postInvalidateOnAnimation(this);
         }
     }
 
     /**
-     * Deactivate and release the edge effects.
+     * Deactivate and release the edge effects, redrawing the View so that any active edge effects
+     * can fade out.
      */
     private void clearEdgeEffects() {
+        if(mEdgeEffectTop.isFinished() && mEdgeEffectBottom.isFinished()
+                && mEdgeEffectLeft.isFinished() && mEdgeEffectRight.isFinished()) {
+            return;
+        }
         mEdgeEffectTop.onRelease();
         mEdgeEffectBottom.onRelease();
         mEdgeEffectLeft.onRelease();
         mEdgeEffectRight.onRelease();
+        ViewCompat.postInvalidateOnAnimation(this);
     }
 
     /**
@@ -857,9 +1785,34 @@ public class PeriodicTableView extends View {
         fillViewport();
 
         mTitlePaint.setTextSize(mBlockSize / 2f);
-        mSymbolPaint.setTextSize(mBlockSize / 2f);
-        mNumberPaint.setTextSize(mBlockSize / 4f);
-        mSmallTextPaint.setTextSize(mBlockSize / 5f);
+        mHeaderPaint.setTextSize(mBlockSize / 4f);
+
+        updateDetailLevel();
+    }
+
+    /**
+     * Set the size of the text drawn on blocks for the current level of detail.
+     *
+     * @param blockSize The block size to size the text for
+     */
+    private void setBlockTextSize(int blockSize) {
+        if(blockSize != mBlockTextSize) {
+            switch(mDetailLevel) {
+                case DETAIL_SYMBOL:
+                    mSymbolPaint.setTextSize(blockSize / 1.8f);
+                    break;
+                case DETAIL_FULL:
+                    mSymbolPaint.setTextSize(blockSize / 4.5f);
+                    mNumberPaint.setTextSize(blockSize / 9f);
+                    mSmallTextPaint.setTextSize(blockSize / 13f);
+                    break;
+                default:
+                    mSymbolPaint.setTextSize(blockSize / 2f);
+                    mNumberPaint.setTextSize(blockSize / 4f);
+                    mSmallTextPaint.setTextSize(blockSize / 5f);
+            }
+            mBlockTextSize = blockSize;
+        }
     }
 
     /**
@@ -938,6 +1891,23 @@ public class PeriodicTableView extends View {
         ViewCompat.postInvalidateOnAnimation(this);
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseBitmaps();
+    }
+
+    /**
+     * Release the cached tiles and the zoom snapshot.
+     */
+    void releaseBitmaps() {
+        if(mTileCache != null) {
+            mTileCache.release();
+        }
+        mSnapshotActive = false;
+        mSnapshot = null;
+    }
+
     @Override
     public void computeScroll() {
         super.computeScroll();
@@ -948,8 +1918,13 @@ public class PeriodicTableView extends View {
 
         if(mZoomer.computeZoom()) {
             setZoom(mZoomer.getCurrZoom());
-            if(mPeriodicTableListener != null && mZoomer.isFinished()) {
-                mPeriodicTableListener.onZoomEnd(this);
+            if(mZoomer.isFinished()) {
+                if(!mScaling) {
+                    endSnapshot();
+                }
+                if(mPeriodicTableListener != null) {
+                    mPeriodicTableListener.onZoomEnd(this);
+                }
             }
             ViewCompat.postInvalidateOnAnimation(this);
         }
@@ -958,41 +1933,18 @@ public class PeriodicTableView extends View {
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
-        canvas.drawRect(0, 0, getRight(), getBottom(), mBgPaint);
-        mRect.top = (int)(mBlockSize * 1.3) + mContentRect.top + mContentOffset.y;
-        mRect.left = mBlockSize * 3 + mContentRect.left + mContentOffset.x;
-        mRect.bottom = mRect.top + mBlockSize * 2;
-        mRect.right = mRect.left + mBlockSize * 9;
-        mLegend.drawLegend(canvas, mRect);
-
-        writeHeaders(canvas);
-        writeTitle(canvas);
-
-        for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-            findBlockPosition(block);
-
-            if(!isBlockVisible(mRect)) {
-                continue;
-            }
-
-            mBlockPaint.setColor(block.color);
-
-            canvas.drawRect(mRect, mBlockPaint);
-
-            canvas.drawText(block.element.symbol, mRect.left + mBlockSize / 2f,
-                    mRect.bottom - (int)(mBlockSize / 2.8), mSymbolPaint);
-
-            canvas.drawText(String.valueOf(block.element.number), mRect.left + mBlockSize / 20f,
-                    mRect.top + mNumberPaint.getTextSize(), mNumberPaint);
-
-            canvas.drawText(block.subtext, mRect.left + mBlockSize / 2f,
-                    mRect.bottom - mBlockSize / 20f, mSmallTextPaint);
+        mFrameOps = 0;
+        if(mSnapshotActive && mSnapshot != null) {
+            drawSnapshot(canvas, mSnapshot);
+        } else {
+            drawContent(canvas);
         }
 
         if(mBlockSelected != null) {
             mSelectedPaint.setStrokeWidth(mBlockSize / 10f);
             findBlockPosition(mBlockSelected);
             canvas.drawRect(mRect, mSelectedPaint);
+            mFrameOps++;
         }
 
         drawEdgeEffects(canvas);
@@ -1023,6 +1975,17 @@ public class PeriodicTableView extends View {
          */
         private String[] mCatNames;
 
+        /**
+         * The subtext value the labels were loaded for, one of the Settings.SUBTEXT_* constants
+         */
+        private int mSubtextValue;
+
+        /**
+         * The element color scheme the labels were loaded for, one of the Settings.COLOR_*
+         * constants
+         */
+        private int mElementColors;
+
         AccessibilityDelegate(View host) {
             super(host);
             mUnknownString = getResources().getString(R.string.unknown);
@@ -1034,29 +1997,32 @@ public class PeriodicTableView extends View {
          */
         void loadLabels() {
             final Resources res = getResources();
-            switch(PreferenceUtils.getPrefSubtextValue()) {
-                case PreferenceUtils.SUBTEXT_DENSITY:
+            final Settings settings = PreferenceUtils.getSettings();
+            mSubtextValue = settings.subtextValue;
+            mElementColors = settings.elementColors;
+            switch(mSubtextValue) {
+                case Settings.SUBTEXT_DENSITY:
                     mSubtextLabel = res.getString(R.string.labelDensity);
                     break;
-                case PreferenceUtils.SUBTEXT_MELT:
+                case Settings.SUBTEXT_MELT:
                     mSubtextLabel = res.getString(R.string.labelMelt);
                     break;
-                case PreferenceUtils.SUBTEXT_BOIL:
+                case Settings.SUBTEXT_BOIL:
                     mSubtextLabel = res.getString(R.string.labelBoil);
                     break;
-                case PreferenceUtils.SUBTEXT_HEAT:
+                case Settings.SUBTEXT_HEAT:
                     mSubtextLabel = res.getString(R.string.labelHeat);
                     break;
-                case PreferenceUtils.SUBTEXT_NEGATIVITY:
+                case Settings.SUBTEXT_NEGATIVITY:
                     mSubtextLabel = res.getString(R.string.labelNegativity);
                     break;
-                case PreferenceUtils.SUBTEXT_ABUNDANCE:
+                case Settings.SUBTEXT_ABUNDANCE:
                     mSubtextLabel = res.getString(R.string.labelAbundance);
                     break;
                 default:
                     mSubtextLabel = res.getString(R.string.labelWeight);
             }
-            if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
+            if(mElementColors == Settings.COLOR_BLOCK) {
                 mCatLabel = res.getStringArray(R.array.elementColorNames)[1];
             } else {
                 if(mCatNames == null) {
@@ -1068,13 +2034,8 @@ public class PeriodicTableView extends View {
 
         @Override
         protected int getVirtualViewAt(float x, float y) {
-            for(PeriodicTableBlock block : mPeriodicTableBlocks) {
-                findBlockPosition(block);
-                if(mRect.contains((int)x, (int)y)) {
-                    return block.element.number - 1;
-                }
-            }
-            return INVALID_ID;
+            final PeriodicTableBlock block = findBlockAt((int)x, (int)y);
+            return block != null ? block.element.number - 1 : INVALID_ID;
         }
 
         @Override
@@ -1107,37 +2068,39 @@ public class PeriodicTableView extends View {
             final String name = res.getString(ElementUtils.getElementName(element.number));
 
             final String subtext;
-            switch(PreferenceUtils.getPrefSubtextValue()) {
-                case PreferenceUtils.SUBTEXT_WEIGHT:
-                    subtext = element.unstable ? String.valueOf((int)element.weight)
+            switch(mSubtextValue) {
+                case Settings.SUBTEXT_WEIGHT:
+                    subtext = element.isUnstable() ? String.valueOf((int)element.getWeight())
                             : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_DENSITY:
-                    subtext = element.density == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_DENSITY:
+                    subtext = Double.isNaN(element.getDensity()) ? mUnknownString : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_MELT:
-                    subtext = element.melt == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_MELT:
+                    subtext = Double.isNaN(element.getMelt()) ? mUnknownString : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_BOIL:
-                    subtext = element.boil == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_BOIL:
+                    subtext = Double.isNaN(element.getBoil()) ? mUnknownString : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_HEAT:
-                    subtext = element.heat == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_HEAT:
+                    subtext = Double.isNaN(element.getHeat()) ? mUnknownString : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_NEGATIVITY:
-                    subtext = element.negativity == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_NEGATIVITY:
+                    subtext = Double.isNaN(element.getNegativity()) ? mUnknownString
+                            : block.subtext;
                     break;
-                case PreferenceUtils.SUBTEXT_ABUNDANCE:
-                    subtext = element.abundance == null ? mUnknownString : block.subtext;
+                case Settings.SUBTEXT_ABUNDANCE:
+                    subtext = Double.isNaN(element.getAbundance()) ? mUnknownString
+                            : block.subtext;
                     break;
                 default:
                     subtext = mUnknownString;
             }
             final String cat;
-            if(PreferenceUtils.COLOR_BLOCK.equals(PreferenceUtils.getPrefElementColors())) {
-                cat = String.valueOf(element.block);
+            if(mElementColors == Settings.COLOR_BLOCK) {
+                cat = String.valueOf(element.getBlock());
             } else {
-                cat = mCatNames[element.category];
+                cat = mCatNames[element.getCategory()];
             }
 
             return res.getString(R.string.descTableBlock, element.number, symbol, name,
@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks the data decoded from the compiled element data asset against a dump of the data made
+ * before it moved out of the Elements and Isotopes classes.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementDataFileTest {
+    /**
+     * The resource holding the expected data
+     */
+    private static final String GOLDEN_FILE = "elements-golden.tsv";
+
+    /**
+     * The number of fields on an element line
+     */
+    private static final int ELEMENT_FIELDS = 17;
+
+    /**
+     * The index of the first numeric property on an element line, followed by the rest in the
+     * order of the PROP_ constants of ElementTable
+     */
+    private static final int FIRST_PROP_FIELD = 8;
+
+    /**
+     * The number of fields on an isotope line
+     */
+    private static final int ISOTOPE_FIELDS = 6;
+
+    /**
+     * The expected element and isotope lines, split into fields
+     */
+    private static List<String[]> sElementLines;
+    private static List<String[]> sIsotopeLines;
+
+    @BeforeClass
+    public static void loadData() throws Exception {
+        final RandomAccessFile file =
+                new RandomAccessFile(System.getProperty("elementary.dataFile"), "r");
+        try {
+            final FileChannel channel = file.getChannel();
+            Elements.load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+
+        sElementLines = new ArrayList<>();
+        sIsotopeLines = new ArrayList<>();
+        final InputStream stream = ElementDataFileTest.class.getResourceAsStream(GOLDEN_FILE);
+        assertNotNull(GOLDEN_FILE, stream);
+        final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        try {
+            String line;
+            while((line = reader.readLine()) != null) {
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final String[] fields = line.split("\t", -1);
+                if(fields[0].equals("element")) {
+                    assertEquals(line, ELEMENT_FIELDS, fields.length);
+                    sElementLines.add(fields);
+                } else {
+                    assertEquals(line, ISOTOPE_FIELDS, fields.length);
+                    sIsotopeLines.add(fields);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Parse an optional numeric value from the expected data.
+     *
+     * @param value The value, or "-" if unknown
+     * @return The value, or NaN if unknown
+     */
+    private static double parseValue(String value) {
+        return value.equals("-") ? Double.NaN : Double.parseDouble(value);
+    }
+
+    @Test
+    public void elementAttributes() {
+        final Element[] elements = Elements.getElements();
+        assertEquals(sElementLines.size(), elements.length);
+        for(int i = 0; i < elements.length; i++) {
+            final String[] fields = sElementLines.get(i);
+            final Element element = elements[i];
+            final String message = fields[2];
+            assertEquals(message, Integer.parseInt(fields[1]), element.number);
+            assertEquals(message, fields[2], element.symbol);
+            assertEquals(message, Integer.parseInt(fields[3]), element.getGroup());
+            assertEquals(message, Integer.parseInt(fields[4]), element.getPeriod());
+            assertEquals(message, fields[5].charAt(0), element.getBlock());
+            assertEquals(message, Integer.parseInt(fields[6]), element.getCategory());
+            assertEquals(message, Boolean.parseBoolean(fields[7]), element.isUnstable());
+            assertEquals(message, element, Elements.getElement(element.number));
+            assertEquals(message, element, Elements.getElement(element.symbol));
+        }
+    }
+
+    @Test
+    public void elementProperties() {
+        final Element[] elements = Elements.getElements();
+        for(int i = 0; i < elements.length; i++) {
+            final String[] fields = sElementLines.get(i);
+            for(int prop = 0; prop < ElementTable.NUM_PROPS; prop++) {
+                assertEquals(fields[2] + " property " + prop,
+                        parseValue(fields[FIRST_PROP_FIELD + prop]), elements[i].getValue(prop),
+                        0);
+            }
+        }
+    }
+
+    @Test
+    public void electronShells() {
+        final Element[] elements = Elements.getElements();
+        for(int i = 0; i < elements.length; i++) {
+            final String[] fields = sElementLines.get(i);
+            final String[] shells = fields[15].split(" ");
+            assertEquals(fields[2], shells.length, elements[i].getShellCount());
+            for(int shell = 0; shell < shells.length; shell++) {
+                assertEquals(fields[2], Integer.parseInt(shells[shell]),
+                        elements[i].getElectrons(shell));
+            }
+        }
+    }
+
+    @Test
+    public void electronConfigurations() {
+        final Element[] elements = Elements.getElements();
+        for(int i = 0; i < elements.length; i++) {
+            final String[] fields = sElementLines.get(i);
+            final String message = fields[2];
+            final String[] tokens = fields[16].split(" ");
+            final Element.Configuration configuration = elements[i].getConfiguration();
+
+            if(tokens[0].equals("-")) {
+                assertNull(message, configuration.baseElement);
+            } else {
+                assertEquals(message, tokens[0], configuration.baseElement);
+            }
+
+            assertEquals(message, tokens.length - 1, configuration.orbitals.length);
+            for(int j = 1; j < tokens.length; j++) {
+                final Element.Orbital orbital = configuration.orbitals[j - 1];
+                assertEquals(message, tokens[j],
+                        "" + orbital.shell + orbital.orbital + orbital.electrons);
+            }
+        }
+    }
+
+    @Test
+    public void isotopes() {
+        int line = 0;
+        for(Element element : Elements.getElements()) {
+            final Isotope[] isotopes = Isotopes.getIsotopes(element.number);
+            assertNotNull(element.symbol, isotopes);
+            for(Isotope isotope : isotopes) {
+                final String[] fields = sIsotopeLines.get(line++);
+                final String message = fields[3];
+                assertEquals(message, Integer.parseInt(fields[1]), element.number);
+                assertEquals(message, Integer.parseInt(fields[2]), isotope.number);
+                assertEquals(message, fields[3], isotope.symbol);
+                assertEquals(message, Double.parseDouble(fields[4]), isotope.mass, 0);
+                if(fields[5].equals("-")) {
+                    assertNull(message, isotope.ic);
+                } else {
+                    assertEquals(message, Double.parseDouble(fields[5]), isotope.ic, 0);
+                }
+            }
+        }
+        assertEquals(sIsotopeLines.size(), line);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the results of ElementQuery and ElementIndex against a scan of the ElementTable.
+ *
+ * @author Steve Guidetti
+ */
+public class ElementQueryTest {
+    /**
+     * Sorted values with ties for testing the binary searches
+     */
+    private static final double[] VALUES = {1, 2, 2, 2, 3};
+
+    /**
+     * The table being queried
+     */
+    private static ElementTable sTable;
+
+    /**
+     * The indices for the table
+     */
+    private static ElementIndex sIndex;
+
+    @BeforeClass
+    public static void loadData() throws Exception {
+        final RandomAccessFile file =
+                new RandomAccessFile(System.getProperty("elementary.dataFile"), "r");
+        try {
+            final FileChannel channel = file.getChannel();
+            Elements.load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+        sTable = Elements.getTable();
+        sIndex = Elements.getIndex();
+    }
+
+    /**
+     * Find the elements with a value of a numeric property within a range by scanning the table.
+     *
+     * @param property     One of the ElementTable.PROP_ constants
+     * @param min          The lower bound of the range
+     * @param minInclusive Whether the lower bound is included in the range
+     * @param max          The upper bound of the range
+     * @param maxInclusive Whether the upper bound is included in the range
+     * @return The set of matching elements
+     */
+    private static ElementSet scanRange(int property, double min, boolean minInclusive,
+                                        double max, boolean maxInclusive) {
+        final ElementSet set = new ElementSet();
+        for(int i = 0; i < sTable.size(); i++) {
+            final double value = sTable.getValue(property, i);
+            if((minInclusive ? value >= min : value > min)
+                    && (maxInclusive ? value <= max : value < max)) {
+                set.add(i);
+            }
+        }
+        return set;
+    }
+
+    @Test
+    public void lowerBoundSkipsSmallerValues() {
+        assertEquals(0, ElementIndex.lowerBound(VALUES, Double.NEGATIVE_INFINITY));
+        assertEquals(0, ElementIndex.lowerBound(VALUES, 0));
+        assertEquals(0, ElementIndex.lowerBound(VALUES, 1));
+        assertEquals(1, ElementIndex.lowerBound(VALUES, 1.5));
+        assertEquals(1, ElementIndex.lowerBound(VALUES, 2));
+        assertEquals(4, ElementIndex.lowerBound(VALUES, 3));
+        assertEquals(5, ElementIndex.lowerBound(VALUES, 4));
+        assertEquals(5, ElementIndex.lowerBound(VALUES, Double.POSITIVE_INFINITY));
+        assertEquals(0, ElementIndex.lowerBound(new double[0], 1));
+    }
+
+    @Test
+    public void upperBoundSkipsEqualValues() {
+        assertEquals(0, ElementIndex.upperBound(VALUES, Double.NEGATIVE_INFINITY));
+        assertEquals(0, ElementIndex.upperBound(VALUES, 0));
+        assertEquals(1, ElementIndex.upperBound(VALUES, 1));
+        assertEquals(1, ElementIndex.upperBound(VALUES, 1.5));
+        assertEquals(4, ElementIndex.upperBound(VALUES, 2));
+        assertEquals(5, ElementIndex.upperBound(VALUES, 3));
+        assertEquals(5, ElementIndex.upperBound(VALUES, Double.POSITIVE_INFINITY));
+        assertEquals(0, ElementIndex.upperBound(new double[0], 1));
+    }
+
+    @Test
+    public void rangesMatchScan() {
+        final double[] bounds = new double[sTable.size() + 2];
+        final ElementSet actual = new ElementSet();
+        for(int property = 0; property < ElementTable.NUM_PROPS; property++) {
+            for(int i = 0; i < sTable.size(); i++) {
+                bounds[i] = sTable.getValue(property, i);
+            }
+            bounds[sTable.size()] = Double.NEGATIVE_INFINITY;
+            bounds[sTable.size() + 1] = Double.POSITIVE_INFINITY;
+
+            for(double min : bounds) {
+                for(double max : bounds) {
+                    for(int flags = 0; flags < 4; flags++) {
+                        final boolean minInclusive = (flags & 1) != 0;
+                        final boolean maxInclusive = (flags & 2) != 0;
+                        sIndex.findRange(property, min, minInclusive, max, maxInclusive, actual);
+                        assertEquals(property + " " + min + " " + max + " " + flags,
+                                scanRange(property, min, minInclusive, max, maxInclusive),
+                                actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tiedValuesMatchTogether() {
+        final int[] order = sTable.getSortOrder(ElementTable.PROP_NEGATIVITY);
+        double tie = Double.NaN;
+        for(int i = 1; i < sTable.getKnownCount(ElementTable.PROP_NEGATIVITY); i++) {
+            if(sTable.getValue(ElementTable.PROP_NEGATIVITY, order[i])
+                    == sTable.getValue(ElementTable.PROP_NEGATIVITY, order[i - 1])) {
+                tie = sTable.getValue(ElementTable.PROP_NEGATIVITY, order[i]);
+                break;
+            }
+        }
+        assertTrue(!Double.isNaN(tie));
+
+        final ElementSet equal = new ElementQuery().range(ElementTable.PROP_NEGATIVITY, tie, tie)
+                .getResult();
+        assertTrue(equal.size() > 1);
+        assertEquals(scanRange(ElementTable.PROP_NEGATIVITY, tie, true, tie, true), equal);
+
+        final ElementSet above = new ElementQuery()
+                .greaterThan(ElementTable.PROP_NEGATIVITY, tie).getResult();
+        final ElementSet below = new ElementQuery()
+                .lessThan(ElementTable.PROP_NEGATIVITY, tie).getResult();
+        final ElementSet all = new ElementQuery().known(ElementTable.PROP_NEGATIVITY).getResult();
+        assertEquals(all.size(), above.size() + equal.size() + below.size());
+    }
+
+    @Test
+    public void nanBoundsMatchNothing() {
+        final ElementSet set = new ElementSet();
+        set.addRange(sTable.size());
+        sIndex.findRange(ElementTable.PROP_WEIGHT, Double.NaN, true, Double.POSITIVE_INFINITY,
+                true, set);
+        assertTrue(set.isEmpty());
+
+        set.addRange(sTable.size());
+        sIndex.findRange(ElementTable.PROP_WEIGHT, Double.NEGATIVE_INFINITY, true, Double.NaN,
+                true, set);
+        assertTrue(set.isEmpty());
+
+        assertEquals(0, new ElementQuery().range(ElementTable.PROP_DENSITY, Double.NaN, 10)
+                .size());
+    }
+
+    @Test
+    public void prefixMasksCoverBothWords() {
+        assertTrue(sTable.size() > 64);
+
+        final ElementSet all = new ElementQuery().known(ElementTable.PROP_WEIGHT).getResult();
+        assertEquals(-1L, all.getLow());
+        assertEquals((1L << (sTable.size() - 64)) - 1, all.getHigh());
+
+        // the elements on each side of the boundary between the words
+        for(int i = 62; i < 66; i++) {
+            final double weight = sTable.getValue(ElementTable.PROP_WEIGHT, i);
+            final ElementSet set = new ElementQuery()
+                    .range(ElementTable.PROP_WEIGHT, weight, weight).getResult();
+            final ElementSet expected = new ElementSet();
+            expected.add(i);
+            assertEquals(String.valueOf(i), expected, set);
+        }
+    }
+
+    @Test
+    public void conditionsAreCombined() {
+        final ElementQuery query = new ElementQuery()
+                .greaterThan(ElementTable.PROP_MELT, 1000)
+                .block('d')
+                .period(5);
+        final ElementSet expected = new ElementSet();
+        for(int i = 0; i < sTable.size(); i++) {
+            if(sTable.getValue(ElementTable.PROP_MELT, i) > 1000 && sTable.getBlock(i) == 'd'
+                    && sTable.getPeriod(i) == 5) {
+                expected.add(i);
+            }
+        }
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, query.getResult());
+        assertEquals(expected.size(), query.size());
+
+        query.reset().category(sTable.getCategory(0)).group(1);
+        assertTrue(query.getResult().contains(0));
+        query.in(new ElementSet());
+        assertEquals(0, query.size());
+    }
+
+    @Test
+    public void indicesPlaceUnknownValuesLast() {
+        final ElementQuery query = new ElementQuery().period(7);
+        final int[] ascending = query.getIndices(ElementTable.PROP_DENSITY, false);
+        final int[] descending = query.getIndices(ElementTable.PROP_DENSITY, true);
+        assertEquals(query.size(), ascending.length);
+        assertEquals(query.size(), descending.length);
+
+        int known = 0;
+        while(known < ascending.length
+                && !Double.isNaN(sTable.getValue(ElementTable.PROP_DENSITY, ascending[known]))) {
+            known++;
+        }
+        assertTrue(known > 0 && known < ascending.length);
+        for(int i = 0; i < ascending.length; i++) {
+            final boolean isKnown =
+                    !Double.isNaN(sTable.getValue(ElementTable.PROP_DENSITY, ascending[i]));
+            assertEquals(i < known, isKnown);
+            if(i > 0 && i < known) {
+                assertTrue(sTable.getValue(ElementTable.PROP_DENSITY, ascending[i - 1])
+                        <= sTable.getValue(ElementTable.PROP_DENSITY, ascending[i]));
+            }
+            if(i < known) {
+                assertEquals(ascending[known - 1 - i], descending[i]);
+            } else {
+                assertEquals(ascending[i], descending[i]);
+            }
+        }
+
+        final int[] byNumber = query.getIndices();
+        for(int i = 1; i < byNumber.length; i++) {
+            assertTrue(byNumber[i - 1] < byNumber[i]);
+        }
+        assertArrayEquals(byNumber, new ElementQuery().in(query.getResult()).getIndices());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the eviction behavior of the PeriodicTableTileCache.
+ *
+ * @author Steve Guidetti
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PeriodicTableTileCacheTest {
+    /**
+     * The size of the tile cache in tiles
+     */
+    private static final int MAX_TILES = 2;
+
+    /**
+     * The level and the content size of each level, in tiles
+     */
+    private static final int LEVEL = 64;
+    private static final int CONTENT_TILES = 2;
+
+    /**
+     * A full cache must not evict the tiles already drawn in the same frame, since the Canvas may
+     * still reference their bitmaps.
+     */
+    @Test
+    public void tilesDrawnInTheCurrentFrameAreNotEvicted() {
+        final RecordingRenderer renderer = new RecordingRenderer();
+        final PeriodicTableTileCache cache = createCache(renderer);
+        final int size = CONTENT_TILES * PeriodicTableTileCache.TILE_SIZE;
+
+        assertFalse(draw(cache, new Rect(0, 0, size, size)));
+        assertEquals(MAX_TILES, renderer.mRenderCount);
+
+        // the tiles drawn before the cache filled up are still cached
+        final int tile = PeriodicTableTileCache.TILE_SIZE;
+        assertTrue(draw(cache, new Rect(0, 0, tile * 2, tile)));
+        assertEquals(MAX_TILES, renderer.mRenderCount);
+    }
+
+    /**
+     * Tiles drawn in earlier frames are evicted to make room for new tiles.
+     */
+    @Test
+    public void tilesFromEarlierFramesAreEvicted() {
+        final RecordingRenderer renderer = new RecordingRenderer();
+        final PeriodicTableTileCache cache = createCache(renderer);
+        final int tile = PeriodicTableTileCache.TILE_SIZE;
+
+        assertTrue(draw(cache, new Rect(0, 0, tile, tile)));
+        assertTrue(draw(cache, new Rect(tile, 0, tile * 2, tile)));
+        assertTrue(draw(cache, new Rect(0, tile, tile, tile * 2)));
+        assertEquals(3, renderer.mRenderCount);
+
+        // the first tile was evicted, so drawing it again renders it again
+        assertTrue(draw(cache, new Rect(0, 0, tile, tile)));
+        assertEquals(4, renderer.mRenderCount);
+    }
+
+    /**
+     * Create a tile cache with room for MAX_TILES tiles.
+     *
+     * @param renderer The renderer for new tiles
+     * @return The tile cache
+     */
+    @NonNull
+    private static PeriodicTableTileCache createCache(@NonNull RecordingRenderer renderer) {
+        final int tileBytes = PeriodicTableTileCache.TILE_SIZE * PeriodicTableTileCache.TILE_SIZE
+                * 4;
+        return new PeriodicTableTileCache(renderer, MAX_TILES * tileBytes);
+    }
+
+    /**
+     * Draw an area of the content at full scale, rendering missing tiles.
+     *
+     * @param cache   The tile cache
+     * @param visible The area of the content to draw
+     * @return The result of the draw call
+     */
+    private static boolean draw(@NonNull PeriodicTableTileCache cache, @NonNull Rect visible) {
+        final int size = CONTENT_TILES * PeriodicTableTileCache.TILE_SIZE;
+        final Canvas canvas = new Canvas(Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888));
+        return cache.draw(canvas, LEVEL, 1f, 0, 0, visible, size, size, true);
+    }
+
+    /**
+     * TileRenderer that counts the tiles it renders.
+     */
+    private static class RecordingRenderer implements PeriodicTableTileCache.TileRenderer {
+        /**
+         * The number of rendered tiles
+         */
+        int mRenderCount;
+
+        @Override
+        public void renderTile(@NonNull Canvas canvas, int left, int top) {
+            mRenderCount++;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.Picture;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+import com.ultramegatech.ey.R;
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.Elements;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks the drawing performance characteristics of the PeriodicTableView.
+ *
+ * @author Steve Guidetti
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PeriodicTableViewTest {
+    /**
+     * The size of the View
+     */
+    private static final int WIDTH = 1920;
+    private static final int HEIGHT = 1080;
+
+    /**
+     * The number of frames to draw before measuring, so that all lazily created objects exist
+     * and the one-time allocations made by the runtime while warming up are excluded
+     */
+    private static final int WARMUP_FRAMES = 200;
+
+    /**
+     * The number of frames to measure
+     */
+    private static final int FRAMES = 100;
+
+    /**
+     * The number of frames to time in each timing run
+     */
+    private static final int TIMED_FRAMES = 2000;
+
+    /**
+     * The blocks of the View
+     */
+    private List<PeriodicTableBlock> mBlocks;
+
+    /**
+     * The View being tested
+     */
+    private TestView mView;
+
+    @Before
+    public void setUp() {
+        mBlocks = new ArrayList<>();
+        for(Element element : Elements.getElements()) {
+            mBlocks.add(new PeriodicTableBlock(element));
+        }
+
+        mView = new TestView();
+        mView.setTitle(R.string.titlePeriodicTable);
+        mView.setBlocks(mBlocks);
+        mView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        mView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void drawAllocatesNothingInSteadyState() {
+        final com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        final FrameCanvas canvas = new FrameCanvas(new Rect(0, 0, WIDTH, HEIGHT));
+        for(int i = 0; i < WARMUP_FRAMES; i++) {
+            mView.onDraw(canvas);
+        }
+        assertTrue(mView.getFrameOpCount() > Elements.getElements().length);
+
+        final long threadId = Thread.currentThread().getId();
+        final long before = threadBean.getThreadAllocatedBytes(threadId);
+        for(int i = 0; i < FRAMES; i++) {
+            mView.onDraw(canvas);
+        }
+        final long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals("bytes allocated in " + FRAMES + " frames", 0, allocated);
+    }
+
+    @Test
+    public void fullZoomOutBatchesBlockBackgrounds() {
+        final Rect bounds = new Rect(0, 0, WIDTH, HEIGHT);
+        mView.onDraw(new FrameCanvas(bounds));
+
+        final FrameCanvas canvas = new FrameCanvas(bounds);
+        mView.onDraw(canvas);
+        assertEquals(canvas.mOps, mView.getFrameOpCount());
+        assertEquals(countColors(null), canvas.mPathOps);
+
+        // drawing each background separately takes one rectangle per block
+        assertTrue(canvas.mRectOps + " rectangles", canvas.mRectOps < mBlocks.size() / 4);
+    }
+
+    @Test
+    public void dimmedBlocksAreBatchedByDimColor() {
+        final ElementSet highlight = new ElementSet();
+        highlight.addRange(20);
+        mView.setHighlight(highlight);
+
+        final Rect bounds = new Rect(0, 0, WIDTH, HEIGHT);
+        mView.onDraw(new FrameCanvas(bounds));
+
+        final FrameCanvas canvas = new FrameCanvas(bounds);
+        mView.onDraw(canvas);
+        assertEquals(canvas.mOps, mView.getFrameOpCount());
+        assertEquals(countColors(highlight), canvas.mPathOps);
+    }
+
+    @Test
+    public void tapRedrawsOnlyTheTappedBlock() {
+        final Rect bounds = new Rect(0, 0, WIDTH, HEIGHT);
+        mView.onDraw(new FrameCanvas(bounds));
+        mView.onDraw(new FrameCanvas(bounds));
+        final int fullOps = mView.getFrameOpCount();
+
+        final PeriodicTableBlock[] clicked = new PeriodicTableBlock[1];
+        mView.setPeriodicTableListener(new PeriodicTableView.PeriodicTableListener() {
+            @Override
+            public void onItemClick(@NonNull PeriodicTableBlock item) {
+                clicked[0] = item;
+            }
+
+            @Override
+            public void onLegendItemClick(int item) {
+            }
+
+            @Override
+            public void onZoomEnd(@NonNull PeriodicTable periodicTable) {
+            }
+        });
+
+        final long time = SystemClock.uptimeMillis();
+        final MotionEvent down = MotionEvent.obtain(time, time, MotionEvent.ACTION_DOWN,
+                WIDTH / 2f, HEIGHT / 2f, 0);
+        mView.onTouchEvent(down);
+        down.recycle();
+        assertFalse(mView.mDirtyRect.isEmpty());
+        assertTrue(mView.mDirtyRect.width() < WIDTH / 4 && mView.mDirtyRect.height() < HEIGHT / 4);
+
+        mView.onDraw(new FrameCanvas(mView.mDirtyRect));
+        final int selectOps = mView.getFrameOpCount();
+        assertTrue(selectOps + " of " + fullOps + " operations", selectOps < fullOps / 4);
+
+        mView.mDirtyRect.setEmpty();
+        final MotionEvent up = MotionEvent.obtain(time, time + 50, MotionEvent.ACTION_UP,
+                WIDTH / 2f, HEIGHT / 2f, 0);
+        mView.onTouchEvent(up);
+        up.recycle();
+        assertNotNull(clicked[0]);
+        assertFalse(mView.mDirtyRect.isEmpty());
+
+        mView.onDraw(new FrameCanvas(mView.mDirtyRect));
+        final int clearOps = mView.getFrameOpCount();
+        assertTrue(clearOps + " of " + fullOps + " operations", clearOps < fullOps / 4);
+    }
+
+    /**
+     * Time drawing the whole table at the minimum zoom level and compare the block background
+     * layer drawn one rectangle per block, as it was before the color batches, with the same
+     * layer drawn from the color batches. This only runs when the elementary.timing system
+     * property is set, which the build sets with -Ptiming.
+     * <p>
+     * The Canvas discards the drawing operations, so the times only include the work done on the
+     * UI thread to issue them. The cost of rasterizing each operation on the render thread has to
+     * be measured on a device.
+     */
+    @Test
+    public void timeDrawTableAtMinimumZoom() {
+        assumeTrue(Boolean.getBoolean("elementary.timing"));
+
+        final Rect bounds = new Rect(0, 0, WIDTH, HEIGHT);
+        final FrameCanvas canvas = new FrameCanvas(bounds);
+        final Runnable drawTable = () -> mView.onDraw(canvas);
+
+        final int blockSize = Math.min(WIDTH / 19, HEIGHT / 11);
+        final Rect[] rects = new Rect[mBlocks.size()];
+        final PeriodicTableBatches batches = new PeriodicTableBatches();
+        batches.begin(blockSize);
+        for(int i = 0; i < rects.length; i++) {
+            final PeriodicTableBlock block = mBlocks.get(i);
+            rects[i] = new Rect(block.col * blockSize, block.row * blockSize,
+                    (block.col + 1) * blockSize - 1, (block.row + 1) * blockSize - 1);
+            batches.addBlock(rects[i], block.color);
+        }
+        final Paint paint = new Paint();
+        final Runnable drawPerBlock = () -> {
+            for(int i = 0; i < rects.length; i++) {
+                paint.setColor(mBlocks.get(i).color);
+                canvas.drawRect(rects[i], paint);
+            }
+        };
+        final Runnable drawBatched = () -> batches.draw(canvas, paint);
+
+        final long table = timeFrames(canvas, drawTable, "drawTable");
+        final long perBlock = timeFrames(canvas, drawPerBlock, "backgrounds, one rect per block");
+        final long batched = timeFrames(canvas, drawBatched, "backgrounds, batched by color");
+        System.out.println(String.format(Locale.US,
+                "drawTable before batching (estimated): %d ns", table - batched + perBlock));
+    }
+
+    /**
+     * Time a drawing routine and print the average time and number of operations per frame.
+     *
+     * @param canvas The Canvas the routine draws on
+     * @param frame  The drawing routine for one frame
+     * @param label  The name of the routine
+     * @return The average time per frame in nanoseconds
+     */
+    private static long timeFrames(FrameCanvas canvas, Runnable frame, String label) {
+        for(int i = 0; i < WARMUP_FRAMES; i++) {
+            frame.run();
+        }
+
+        canvas.mOps = 0;
+        final long start = System.nanoTime();
+        for(int i = 0; i < TIMED_FRAMES; i++) {
+            frame.run();
+        }
+        final long time = (System.nanoTime() - start) / TIMED_FRAMES;
+        System.out.println(String.format(Locale.US, "%s: %d ns, %d operations per frame", label,
+                time, canvas.mOps / TIMED_FRAMES));
+        return time;
+    }
+
+    /**
+     * Count the distinct background colors of the blocks.
+     *
+     * @param highlight The set of highlighted elements, or null if no blocks are dimmed
+     * @return The number of distinct colors
+     */
+    private int countColors(ElementSet highlight) {
+        final HashSet<Integer> colors = new HashSet<>();
+        for(PeriodicTableBlock block : mBlocks) {
+            final boolean dim = highlight != null && !highlight.contains(block.element.number - 1);
+            colors.add(dim ? block.dimColor : block.color);
+        }
+        return colors.size();
+    }
+
+    /**
+     * A PeriodicTableView that records the areas it invalidates instead of scheduling frames, as
+     * PeriodicTableSurfaceView does.
+     */
+    private static class TestView extends PeriodicTableView {
+        /**
+         * The union of the areas invalidated
+         */
+        final Rect mDirtyRect = new Rect();
+
+        TestView() {
+            super(RuntimeEnvironment.application);
+        }
+
+        @Override
+        public void postInvalidateOnAnimation(int left, int top, int right, int bottom) {
+            mDirtyRect.union(left, top, right, bottom);
+        }
+    }
+
+    /**
+     * A software Canvas that reports a fixed clip and counts the drawing operations instead of
+     * performing them, so that measurements only include the work done by the View and not by
+     * the Robolectric graphics shadows.
+     */
+    private static class FrameCanvas extends Canvas {
+        /**
+         * The clip bounds to report
+         */
+        private final Rect mClip;
+
+        /**
+         * The number of drawing operations of each type
+         */
+        int mOps;
+        int mRectOps;
+        int mPathOps;
+
+        /**
+         * @param clip The clip bounds to report
+         */
+        FrameCanvas(Rect clip) {
+            super(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+            mClip = new Rect(clip);
+        }
+
+        @Override
+        public boolean getClipBounds(Rect bounds) {
+            bounds.set(mClip);
+            return !mClip.isEmpty();
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+            mRectOps++;
+            mOps++;
+        }
+
+        @Override
+        public void drawRect(Rect r, Paint paint) {
+            mRectOps++;
+            mOps++;
+        }
+
+        @Override
+        public void drawRect(RectF rect, Paint paint) {
+            mRectOps++;
+            mOps++;
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+            mPathOps++;
+            mOps++;
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawText(String text, int start, int end, float x, float y, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawText(CharSequence text, int start, int end, float x, float y,
+                             Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+            mOps++;
+        }
+
+        @Override
+        public void drawPicture(Picture picture) {
+            mOps++;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey;
+
+import com.ultramegatech.ey.provider.Elements;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Loads the data used by the benchmarks from the files produced by the app module.
+ *
+ * @author Steve Guidetti
+ */
+public class BenchmarkData {
+    /**
+     * Whether the element data has been loaded
+     */
+    private static boolean sLoaded;
+
+    /**
+     * Load the compiled element data file into the Elements provider.
+     *
+     * @throws Exception If the data file cannot be read
+     */
+    public static synchronized void loadElements() throws Exception {
+        if(sLoaded) {
+            return;
+        }
+        final RandomAccessFile file =
+                new RandomAccessFile(System.getProperty("elementary.dataFile"), "r");
+        try {
+            final FileChannel channel = file.getChannel();
+            Elements.load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+        sLoaded = true;
+    }
+
+    /**
+     * Read the English element names from the app resources.
+     *
+     * @return The element names indexed by atomic number minus one
+     * @throws Exception If the resource file cannot be read
+     */
+    public static String[] loadNames() throws Exception {
+        final Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File(System.getProperty("elementary.namesFile")));
+        final NodeList strings = document.getElementsByTagName("string");
+        final HashMap<String, String> map = new HashMap<>();
+        for(int i = 0; i < strings.getLength(); i++) {
+            final Element string = (Element)strings.item(i);
+            map.put(string.getAttribute("name"), string.getTextContent());
+        }
+
+        final String[] names = new String[Elements.getTable().size()];
+        for(int i = 0; i < names.length; i++) {
+            names[i] = map.get(String.format("el%03d", i + 1));
+        }
+        return names;
+    }
+}
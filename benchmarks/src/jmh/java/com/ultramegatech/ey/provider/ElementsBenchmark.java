@@ -0,0 +1,76 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.provider;
+
+import com.ultramegatech.ey.BenchmarkData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks for the element and isotope lookups.
+ *
+ * @author Steve Guidetti
+ */
+@State(Scope.Thread)
+public class ElementsBenchmark {
+    /**
+     * Symbols to look up, in the mixed case typically found in deep links and user input
+     */
+    private static final String[] SYMBOLS = {"h", "He", "FE", "au", "Og", "Uuo", "c", "Xe"};
+
+    /**
+     * The index of the next lookup
+     */
+    private int mNext;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData.loadElements();
+    }
+
+    @Benchmark
+    public Element getElementBySymbol() {
+        mNext = (mNext + 1) % SYMBOLS.length;
+        return Elements.getElement(SYMBOLS[mNext]);
+    }
+
+    @Benchmark
+    public Element getElementByNumber() {
+        mNext = (mNext + 1) % 118;
+        return Elements.getElement(mNext + 1);
+    }
+
+    @Benchmark
+    public Element[] getElements() {
+        return Elements.getElements();
+    }
+
+    @Benchmark
+    public Isotope[] getIsotopes() {
+        mNext = (mNext + 1) % 118;
+        return Isotopes.getIsotopes(mNext + 1);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.util;
+
+import com.ultramegatech.ey.BenchmarkData;
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.Elements;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for formatting the subtext of every block in the table, as done whenever the table
+ * is loaded or the subtext preference changes.
+ *
+ * @author Steve Guidetti
+ */
+@State(Scope.Thread)
+public class SubtextBenchmark {
+    /**
+     * The subtext value, one of the Settings.SUBTEXT_ constants
+     */
+    @Param({"0", "1", "2", "3", "4", "5", "6"})
+    public int subtextValue;
+
+    /**
+     * The temperature unit, one of the Settings.TEMP_ constants
+     */
+    @Param({"0", "2"})
+    public int tempUnit;
+
+    /**
+     * The list of all of the elements
+     */
+    private Element[] mElements;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData.loadElements();
+        mElements = Elements.getElements();
+    }
+
+    @Benchmark
+    public void getSubtextAll(Blackhole blackhole) {
+        for(Element element : mElements) {
+            blackhole.consume(SubtextUtils.getSubtext(element, subtextValue, tempUnit));
+        }
+    }
+}
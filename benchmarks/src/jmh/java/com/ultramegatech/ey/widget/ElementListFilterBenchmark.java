@@ -0,0 +1,94 @@
+/*
+ * The MIT License (MIT)
+ * Copyright © 2012 Steve Guidetti
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the “Software”), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED “AS IS”, WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.ultramegatech.ey.widget;
+
+import com.ultramegatech.ey.BenchmarkData;
+import com.ultramegatech.ey.provider.Element;
+import com.ultramegatech.ey.provider.ElementSet;
+import com.ultramegatech.ey.provider.Elements;
+import com.ultramegatech.ey.util.ElementSearchIndex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * Benchmarks for filtering the element list, which runs on every keystroke in the filter field.
+ *
+ * @author Steve Guidetti
+ */
+@State(Scope.Thread)
+public class ElementListFilterBenchmark {
+    /**
+     * The filter text
+     */
+    @Param({"", "c", "ca", "carb", "ium", "xyz"})
+    public String filter;
+
+    /**
+     * The original data set
+     */
+    private ElementListItems.ElementHolder[] mItems;
+
+    /**
+     * The search index
+     */
+    private ElementSearchIndex mIndex;
+
+    /**
+     * The set of matching elements
+     */
+    private final ElementSet mMatches = new ElementSet();
+
+    /**
+     * The indices of the items in order by name
+     */
+    private int[] mNameOrder;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkData.loadElements();
+        final Element[] elements = Elements.getElements();
+        final String[] names = BenchmarkData.loadNames();
+        final String[] symbols = new String[elements.length];
+        mItems = new ElementListItems.ElementHolder[elements.length];
+        for(int i = 0; i < elements.length; i++) {
+            symbols[i] = elements[i].symbol;
+            mItems[i] = new ElementListItems.ElementHolder(elements[i], names[i]);
+        }
+        mIndex = new ElementSearchIndex(symbols, names, Locale.ENGLISH);
+        mNameOrder = ElementListItems.getNameOrder(names, Collator.getInstance(Locale.ENGLISH));
+    }
+
+    @Benchmark
+    public ElementListItems.ElementHolder[] filterList() {
+        ElementListItems.filterList(mIndex, mItems.length, filter, mMatches);
+        return ElementListItems.sortList(mItems, mNameOrder, mNameOrder.length, true,
+                mMatches);
+    }
+}